@@ -0,0 +1,158 @@
+package g56080.simon.bench;
+
+import java.lang.management.ManagementFactory;
+
+import g56080.simon.model.ClockChronoTimer;
+import g56080.simon.model.Model;
+import g56080.simon.model.PadSequence;
+import g56080.simon.model.VirtualClock;
+
+/**
+ * Allocation regression harness driving scripted games through the model and recording the bytes allocated by the
+ * playing thread per click, per level and per game, using the allocation counters of
+ * {@link com.sun.management.ThreadMXBean}. The harness is run by the build of this module after packaging and
+ * fails it when a budget is exceeded, so that allocation regressions are caught before they reach the GC logs.
+ *
+ * <p>The model follows a {@link VirtualClock}, so each game ends on a player timeout without waiting. The game
+ * length and the budgets can be overridden with the system properties <code>simon.levels</code>,
+ * <code>simon.budget.click</code>, <code>simon.budget.level</code> and <code>simon.budget.game</code> (bytes).
+ */
+public class AllocationHarness{
+
+    private final static int WARMUP_GAMES = 500, GAMES = 100, LEVELS = 100;
+    private final static long CLICK_BUDGET = 0, LEVEL_BUDGET = 384, GAME_BUDGET = 32 * 1024;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final VirtualClock clock;
+    private final Model model;
+    private final long overhead; /* bytes reported for an empty measurement */
+    private long clickBytes, clicks, levelBytes, levels, gameBytes, games;
+
+    /**
+     * Creates a new AllocationHarness playing on a model following a virtual clock.
+     *
+     * @throws UnsupportedOperationException if the JVM does not support the thread allocation counters.
+     */
+    public AllocationHarness(){
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if(!threads.isThreadAllocatedMemorySupported())
+            throw new UnsupportedOperationException("Thread allocation counters not supported");
+
+        threads.setThreadAllocatedMemoryEnabled(true);
+        clock = new VirtualClock();
+        model = new Model(new ClockChronoTimer(clock), 42L);
+        model.subscribe(event -> {});
+
+        long start = allocated();
+        overhead = allocated() - start;
+    }
+
+    /**
+     * Plays the given number of games, each one succeeding the given number of levels before being lost on a
+     * timeout. The recorded figures are reset before playing.
+     *
+     * @param gameCount the number of games to play
+     * @param levelCount the number of levels succeeded in each game
+     */
+    public void play(int gameCount, int levelCount){
+        clickBytes = clicks = levelBytes = levels = gameBytes = games = 0;
+        for(int i = 0; i < gameCount; i++)
+            playGame(levelCount);
+    }
+
+    /**
+     * Gets the average number of bytes allocated per click that does not complete a level.
+     *
+     * @return the bytes per click.
+     */
+    public double getBytesPerClick(){
+        return clicks == 0 ? 0 : (double) clickBytes / clicks;
+    }
+
+    /**
+     * Gets the average number of bytes allocated per level, from the end of the sequence playback to the
+     * level-up.
+     *
+     * @return the bytes per level.
+     */
+    public double getBytesPerLevel(){
+        return levels == 0 ? 0 : (double) levelBytes / levels;
+    }
+
+    /**
+     * Gets the average number of bytes allocated per game, from the initialization of the model to the timeout.
+     *
+     * @return the bytes per game.
+     */
+    public double getBytesPerGame(){
+        return games == 0 ? 0 : (double) gameBytes / games;
+    }
+
+    /**
+     * Runs the harness: warms the model up, measures the allocations of scripted games and checks them against
+     * the budgets.
+     *
+     * @param args the command-line arguments (unused)
+     * @throws IllegalStateException if a budget is exceeded, failing the build.
+     */
+    public static void main(String[] args){
+        int levelCount = Integer.getInteger("simon.levels", LEVELS);
+        long clickBudget = Long.getLong("simon.budget.click", CLICK_BUDGET);
+        long levelBudget = Long.getLong("simon.budget.level", LEVEL_BUDGET);
+        long gameBudget = Long.getLong("simon.budget.game", GAME_BUDGET);
+
+        AllocationHarness harness = new AllocationHarness();
+        harness.play(WARMUP_GAMES, levelCount);
+        harness.play(GAMES, levelCount);
+
+        StringBuilder failures = new StringBuilder();
+        check(failures, "click", harness.getBytesPerClick(), clickBudget);
+        check(failures, "level", harness.getBytesPerLevel(), levelBudget);
+        check(failures, "game", harness.getBytesPerGame(), gameBudget);
+        if(failures.length() > 0)
+            throw new IllegalStateException("Allocation budget exceeded:" + failures);
+    }
+
+    private void playGame(int levelCount){
+        long gameStart = allocated();
+        model.init();
+        model.start();
+        for(int level = 0; level < levelCount; level++){
+            long levelStart = allocated();
+            model.sequenceOver();
+            PadSequence sequence = model.getSequence();
+            int last = sequence.size() - 1;
+            for(int i = 0; i < last; i++){
+                int pad = sequence.get(i);
+                long clickStart = allocated();
+                model.click(pad);
+                clickBytes += allocated() - clickStart - overhead;
+                clicks++;
+            }
+
+            model.click(sequence.get(last));
+            model.nextLevel();
+            levelBytes += allocated() - levelStart - overhead;
+            levels++;
+        }
+
+        model.sequenceOver();
+        clock.runAll(); /* the player timer takes end */
+        if(model.getState() != Model.State.TIME_IS_OVER)
+            throw new IllegalStateException("Game not over on timeout: " + model.getState());
+
+        gameBytes += allocated() - gameStart - overhead;
+        games++;
+    }
+
+    private long allocated(){
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    private static void check(StringBuilder failures, String unit, double bytes, long budget){
+        boolean exceeded = bytes > budget;
+        System.out.printf("%-5s %10.1f B (budget %d B)%s%n", unit, bytes, budget, exceeded ? " EXCEEDED" : "");
+        if(exceeded)
+            failures.append(String.format(" %s %.1f B > %d B;", unit, bytes, budget));
+    }
+}
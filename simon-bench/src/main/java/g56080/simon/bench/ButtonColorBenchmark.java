@@ -0,0 +1,73 @@
+package g56080.simon.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import g56080.simon.model.Model;
+import g56080.simon.view.ButtonColor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Benchmarks of the ButtonColor lookups done on each step of a sequence of the given length, from a pad id
+ * ({@link ButtonColor#valueOf(int)}) and from a color ({@link ButtonColor#valueOf(Color)}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ButtonColorBenchmark{
+
+    @Param({"10", "100", "1000", "10000"})
+    private int length;
+
+    private int[] pads;
+    private Color[] colors;
+
+    /**
+     * Generates the pads and colors of a sequence of the benchmarked length.
+     */
+    @Setup
+    public void setUp(){
+        pads = ModelBenchmark.reachLength(length).getSequence().toArray();
+        colors = new Color[length];
+        for(int i = 0; i < length; i++)
+            colors[i] = ButtonColor.valueOf(pads[i]).getValue();
+    }
+
+    /**
+     * Benchmarks the lookup of the ButtonColor of each pad of the sequence.
+     *
+     * @param hole the blackhole consuming the lookups
+     */
+    @Benchmark
+    public void valueOfPad(Blackhole hole){
+        for(int pad : pads)
+            hole.consume(ButtonColor.valueOf(pad));
+    }
+
+    /**
+     * Benchmarks the lookup of the ButtonColor of each color of the sequence.
+     *
+     * @param hole the blackhole consuming the lookups
+     */
+    @Benchmark
+    public void valueOfColor(Blackhole hole){
+        for(Color color : colors)
+            hole.consume(ButtonColor.valueOf(color));
+    }
+}
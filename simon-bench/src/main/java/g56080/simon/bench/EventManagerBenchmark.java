@@ -0,0 +1,104 @@
+package g56080.simon.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import g56080.simon.view.ButtonColor;
+import g56080.simon.view.EventManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+
+/**
+ * Benchmarks of the EventManager operations done by the view while a sequence of the given length is played: the
+ * lookup of the pad targets by their color name on each step, and the add and remove of targets and handlers. The
+ * targets are plain panes so that no JavaFx toolkit is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventManagerBenchmark{
+
+    @Param({"10", "100", "1000", "10000"})
+    private int length;
+
+    private EventManager manager;
+    private String[] names;
+    private Node[] nodes;
+    private EventHandler<ActionEvent> handler;
+
+    /**
+     * Registers one target per pad and generates the color names of a sequence of the benchmarked length.
+     */
+    @Setup
+    public void setUp(){
+        manager = new EventManager();
+        nodes = new Node[ButtonColor.values().length];
+        for(ButtonColor btnColor : ButtonColor.values()){
+            nodes[btnColor.getPad()] = new Pane();
+            manager.addTarget(btnColor.getValue().toString(), nodes[btnColor.getPad()]);
+        }
+
+        int[] pads = ModelBenchmark.reachLength(length).getSequence().toArray();
+        names = new String[length];
+        for(int i = 0; i < length; i++)
+            names[i] = ButtonColor.valueOf(pads[i]).getValue().toString();
+        handler = event -> {};
+    }
+
+    /**
+     * Benchmarks the lookup of the target of each step of the sequence, as done by the sequence playback.
+     *
+     * @param hole the blackhole consuming the targets
+     */
+    @Benchmark
+    public void getTarget(Blackhole hole){
+        for(String name : names)
+            hole.consume(manager.getTarget(name));
+    }
+
+    /**
+     * Benchmarks the replacement of the handler of each step of the sequence, as done for each pad when the turn
+     * changes. The handler is replaced by removing and adding the target again, which drops its handler map:
+     * removeEventsFrom detaches the handlers from the node but keeps them in the map of the manager, and the
+     * wrapped event types are compared by identity, so that each addEventHandler following it adds an entry. In
+     * the baseline, that map grows by one entry per replacement and removeEventsFrom scans all of them, which would
+     * be measured instead of the replacement.
+     */
+    @Benchmark
+    public void replaceEventHandler(){
+        for(String name : names){
+            Node node = manager.removeTarget(name).orElseThrow();
+            manager.addTarget(name, node);
+            manager.addEventHandler(name, ActionEvent.ACTION, handler);
+        }
+    }
+
+    /**
+     * Benchmarks the removal and the addition of the target of each step of the sequence.
+     */
+    @Benchmark
+    public void addRemoveTarget(){
+        for(String name : names){
+            Node node = manager.removeTarget(name).orElseThrow();
+            manager.addTarget(name, node);
+        }
+    }
+}
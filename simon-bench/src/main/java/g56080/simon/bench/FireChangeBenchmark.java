@@ -0,0 +1,60 @@
+package g56080.simon.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import g56080.simon.model.Model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the notification of the model listeners ({@link Model#fireChange()}) for 1, 10 and 100 listeners,
+ * the model holding a sequence of the given length.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FireChangeBenchmark{
+
+    @Param({"1", "10", "100"})
+    private int listeners;
+
+    @Param({"10", "1000"})
+    private int length;
+
+    private Model model;
+
+    /**
+     * Brings a model to the benchmarked length and subscribes the benchmarked number of listeners, each one
+     * consuming the events in a blackhole.
+     *
+     * @param hole the blackhole consuming the events
+     */
+    @Setup
+    public void setUp(Blackhole hole){
+        model = ModelBenchmark.reachLength(length);
+        for(int i = 0; i < listeners; i++)
+            model.subscribe(hole::consume);
+    }
+
+    /**
+     * Benchmarks the notification of all the listeners.
+     */
+    @Benchmark
+    public void fireChange(){
+        model.fireChange();
+    }
+}
@@ -0,0 +1,156 @@
+package g56080.simon.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import g56080.simon.model.ChronoTimer;
+import g56080.simon.model.Model;
+import g56080.simon.model.PadSequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the model entry points driven by the controller on a sequence of the given length. The models use
+ * a timer backend that never runs its task, so that only the model itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark{
+
+    /**
+     * A timer backend ignoring the player timer.
+     */
+    static final ChronoTimer NO_TIMER = new ChronoTimer(){
+
+        @Override
+        public void start(long delay, Runnable task){
+        }
+
+        @Override
+        public void cancel(){
+        }
+    };
+
+    @Param({"10", "100", "1000", "10000"})
+    private int length;
+
+    private Model clicking, batching, replaying, leveling, rejecting;
+    private byte[] levelCompleted; /* snapshot of a completed level of the benchmarked length */
+    private int[] pads;
+    private int cursor;
+
+    /**
+     * Brings the models to a level whose sequence has the benchmarked length. This sequence becomes their last
+     * sequence, so that a last game can start over from it.
+     */
+    @Setup
+    public void setUp(){
+        clicking = reachLength(length);
+        pads = clicking.getSequence().toArray();
+        replay(clicking);
+
+        batching = reachLength(length);
+        replaying = reachLength(length);
+        leveling = reachLength(length);
+        for(int pad : pads)
+            leveling.click(pad);
+        levelCompleted = leveling.toSnapshot();
+        rejecting = reachLength(length);
+    }
+
+    /**
+     * Benchmarks a valid click. A last game is started over every time the whole sequence has been played, which
+     * adds an amortized constant cost per click.
+     */
+    @Benchmark
+    public void click(){
+        clicking.click(pads[cursor]);
+        if(++cursor == length){
+            cursor = 0;
+            replay(clicking);
+        }
+    }
+
+    /**
+     * Benchmarks a batch of valid clicks playing the whole sequence at once, then starts a last game over.
+     *
+     * @return the result of the batch.
+     */
+    @Benchmark
+    public int clickBatch(){
+        int result = batching.click(pads, null);
+        replay(batching);
+        return result;
+    }
+
+    /**
+     * Benchmarks a level-up, appending a new pad to a sequence of the benchmarked length. The completed level is
+     * restored from a snapshot before each level-up, which adds the cost of the restoration, linear in the length
+     * divided by 32.
+     */
+    @Benchmark
+    public void nextLevel(){
+        leveling.restore(levelCompleted);
+        leveling.nextLevel();
+    }
+
+    /**
+     * Benchmarks the rejection of an illegal input, the end of the sequence playback during the player turn.
+     *
+     * @return false, the input being rejected.
+     */
+    @Benchmark
+    public boolean rejectedInput(){
+        return rejecting.sequenceOver();
+    }
+
+    /**
+     * Benchmarks the start of a last game, copying the last sequence into the game sequence.
+     */
+    @Benchmark
+    public void last(){
+        replay(replaying);
+    }
+
+    static Model reachLength(int length){ /* a model in PLAYER_TURN whose sequence has the given length */
+        Model model = new Model(NO_TIMER, 42L);
+        model.init();
+        model.start();
+        for(int i = 1; i < length; i++){
+            play(model);
+            model.nextLevel();
+        }
+
+        play(model);
+        model.init();
+        model.last();
+        model.sequenceOver();
+        return model;
+    }
+
+    private static void replay(Model model){
+        model.init();
+        model.last();
+        model.sequenceOver();
+    }
+
+    private static void play(Model model){
+        model.sequenceOver();
+        PadSequence sequence = model.getSequence();
+        for(int i = 0; i < sequence.size(); i++)
+            model.click(sequence.get(i));
+    }
+}
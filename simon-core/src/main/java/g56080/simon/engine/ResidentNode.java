@@ -0,0 +1,11 @@
+package g56080.simon.engine;
+
+/**
+ * A node of the intrusive list of the sessions resident in a {@link SessionEngine}. The list is circular around a
+ * plain node acting as its sentinel, so that linking and unlinking a {@link Session} never checks for an end.
+ */
+class ResidentNode{
+
+    /* guarded by the sentinel */
+    ResidentNode lruPrev, lruNext;
+}
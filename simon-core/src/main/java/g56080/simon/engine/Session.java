@@ -0,0 +1,268 @@
+package g56080.simon.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import g56080.simon.model.ChronoTimer;
+import g56080.simon.model.Model;
+import g56080.simon.model.TimingWheel;
+import g56080.simon.model.WheelChronoTimer;
+
+/**
+ * A game session hosted by a {@link SessionEngine}. A session owns a {@link Model} confined to one executor of the
+ * engine: every input is run on that executor, as well as the end of the player timer, so the model never needs
+ * any synchronization. A session also counts the inputs it handled and the events its model fired to report its
+ * throughput.
+ *
+ * <p>When its engine bounds the number of resident sessions, an idle session may be spilled: its model is saved as
+ * a snapshot to the spill file of the engine and dropped from memory, then restored from the snapshot by the next
+ * input, transparently. A restored model keeps its game but not the listeners subscribed to it by the inputs. A
+ * session in the player turn or counting down before a game is busy and is not spilled, nor is a session whose
+ * last spill failed until its next input. The spill slot of an evicted session, or of a session outgrowing it, is
+ * released for reuse.
+ */
+public class Session extends ResidentNode{
+
+    private final long id;
+    private final TimingWheel wheel;
+    private final Executor executor;
+    private final SessionEngine engine;
+    private final long creation; /* nanoseconds */
+    private volatile long inputs, events; /* written by the executor only */
+    private volatile boolean evicted;
+    private volatile RuntimeException failure;
+
+    /* executor state, null model and timer while spilled */
+    private Model model;
+    private ChronoTimer timer;
+    private long spillOffset = -1;
+    private int spillSlot, spillLength;
+    private volatile boolean busy, spillFailed; /* written by the executor, read by the sweeps of the engine */
+
+    /* resident list of the engine, guarded by it, also read without it */
+    volatile boolean resident, referenced;
+
+    Session(SessionEngine engine, long id, long seed, TimingWheel wheel, Executor executor){
+        this.engine = engine;
+        this.id = id;
+        this.wheel = wheel;
+        this.executor = executor;
+        load(seed);
+        creation = System.nanoTime();
+    }
+
+    /**
+     * Gets the id of this session, unique within its engine.
+     *
+     * @return the session id.
+     */
+    public long getId(){
+        return id;
+    }
+
+    /**
+     * Runs the given input on the model of this session, on the executor owning it. Inputs are run in submission
+     * order. An input submitted after the session has been evicted is dropped. An input failing, or a spilled model
+     * failing to be restored for it, fails the session (see {@link #getFailure()}).
+     *
+     * @param input the input to run on the model
+     */
+    public void execute(Consumer<Model> input){
+        engine.touch(this);
+        executor.execute(() -> {
+            if(evicted)
+                return;
+
+            try{
+                input.accept(model());
+                spillFailed = false;
+                countInput();
+            } catch(RuntimeException exc){
+                countInput();
+                engine.fail(this, exc);
+            }
+        });
+    }
+
+    /**
+     * Runs the given query on the model of this session, on the executor owning it, and gets its result
+     * asynchronously. The future is cancelled if the session has been evicted before the query was run, and
+     * completed exceptionally if the query fails. A spilled model failing to be restored for the query also fails
+     * the session (see {@link #getFailure()}).
+     *
+     * @param <T> the result type
+     * @param query the query to run on the model
+     * @return the future result of the query.
+     */
+    public <T> CompletableFuture<T> call(Function<Model, T> query){
+        CompletableFuture<T> result = new CompletableFuture<>();
+        engine.touch(this);
+        executor.execute(() -> {
+            if(evicted){
+                result.cancel(false);
+                return;
+            }
+
+            Model restored;
+            try{
+                restored = model();
+            } catch(RuntimeException exc){
+                engine.fail(this, exc);
+                result.completeExceptionally(exc);
+                return;
+            }
+
+            try{
+                result.complete(query.apply(restored));
+                spillFailed = false;
+            } catch(RuntimeException exc){
+                result.completeExceptionally(exc);
+            } finally{
+                countInput();
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Gets the number of inputs handled by this session so far, failed ones included.
+     *
+     * @return the input count.
+     */
+    public long getInputCount(){
+        return inputs;
+    }
+
+    /**
+     * Gets the number of events fired by the model of this session so far.
+     *
+     * @return the event count.
+     */
+    public long getEventCount(){
+        return events;
+    }
+
+    /**
+     * Gets the average number of inputs handled per second since this session was created.
+     *
+     * @return the input throughput of this session.
+     */
+    public double getThroughput(){
+        return SessionEngine.perSecond(inputs, System.nanoTime() - creation);
+    }
+
+    /**
+     * Checks if this session has been evicted from its engine.
+     *
+     * @return true if it has been evicted, false otherwise.
+     */
+    public boolean isEvicted(){
+        return evicted;
+    }
+
+    /**
+     * Gets the failure that made the engine evict this session: the exception thrown by one of its inputs, or the
+     * {@link UncheckedIOException} thrown when its spilled model could not be restored.
+     *
+     * @return the optional failure of this session.
+     */
+    public Optional<RuntimeException> getFailure(){
+        return Optional.ofNullable(failure);
+    }
+
+    boolean isSpillable(){ /* any thread, as last seen by the executor */
+        return !busy && !spillFailed;
+    }
+
+    void evict(){ /* any thread, the pending inputs are dropped and the player timer cancelled */
+        evicted = true;
+        executor.execute(() -> {
+            if(timer != null)
+                timer.cancel();
+            if(spillOffset >= 0){
+                engine.getSpillFile().release(spillOffset, spillSlot);
+                spillOffset = -1;
+            }
+        });
+    }
+
+    void spill(SpillFile file){ /* any thread, the model is spilled once the pending inputs are run */
+        executor.execute(() -> {
+            if(evicted || model == null || resident) /* made resident again by a later input */
+                return;
+
+            if(isBusy(model.getState())){ /* not idle, a countdown or the player timer is running */
+                engine.relink(this);
+                return;
+            }
+
+            byte[] snapshot = model.toSnapshot();
+            try{
+                if(spillOffset < 0 || snapshot.length > spillSlot){
+                    if(spillOffset >= 0)
+                        file.release(spillOffset, spillSlot);
+                    spillSlot = SpillFile.slotSize(snapshot.length);
+                    spillOffset = file.allocate(spillSlot);
+                }
+                file.write(spillOffset, snapshot);
+            } catch(IOException exc){
+                spillFailed = true; /* kept resident, not swept again before its next input */
+                engine.relink(this);
+                return;
+            }
+
+            spillLength = snapshot.length;
+            model = null;
+            timer = null;
+            engine.countSpill();
+        });
+    }
+
+    void setFailure(RuntimeException failure){ /* on the executor, before evicting the session */
+        this.failure = failure;
+    }
+
+    private void countInput(){
+        inputs++;
+        engine.countInput();
+    }
+
+    private Model model(){ /* on the executor, restores a spilled model */
+        if(model == null){
+            try{
+                byte[] snapshot = engine.getSpillFile().read(spillOffset, spillLength);
+                load(0);
+                model.restore(snapshot);
+            } catch(IOException exc){
+                throw new UncheckedIOException(exc);
+            }
+            engine.relink(this); /* no-op unless the lock-free touch of this input raced with its spill */
+        }
+
+        return model;
+    }
+
+    private void load(long seed){
+        timer = new WheelChronoTimer(wheel, executor);
+        model = new Model(timer, seed);
+        model.subscribe(event -> {
+            events++;
+            busy = isBusy(event.getState());
+        });
+    }
+
+    private static boolean isBusy(Model.State state){ /* its pending action would be lost by a spill */
+        return state == Model.State.PLAYER_TURN || state == Model.State.GAME_STARTED_TIMER;
+    }
+
+    @Override
+    public String toString(){
+        return "Session[id=" + id + ", inputs=" + inputs + ", events=" + events + "]";
+    }
+}
@@ -0,0 +1,393 @@
+package g56080.simon.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import g56080.simon.model.Model;
+import g56080.simon.model.TimingWheel;
+
+/**
+ * A game engine hosting many independent {@link Session}s in one JVM. The engine owns a fixed number of
+ * single-threaded executors, one per core by default, and confines each session to one of them, chosen from its
+ * id: the models of the sessions sharing an executor are run one input at a time, and the sessions of different
+ * executors run in parallel. Sessions are created, looked up and evicted by id from any thread. Each executor has
+ * its own {@link TimingWheel} driving the player timers of its sessions, so a running deadline costs the same
+ * whatever the number of sessions and the executors never contend on a timer.
+ *
+ * <p>The engine counts the inputs handled by all its sessions to report its aggregate throughput; each session
+ * reports its own. A session failed by one of its inputs, or by the restoration of its spilled model, is evicted
+ * and reported to the failure handler of the engine.
+ *
+ * <p>An engine can bound the number of sessions resident in memory. The resident sessions are then kept in an
+ * intrusive list swept in a second-chance (CLOCK) order: an input on a resident session only marks it as referenced,
+ * without locking, and the list is only locked when an input makes a spilled session resident again. That input
+ * then sweeps the list from its eldest end. A referenced session gets a second chance, and the first session that
+ * was not referenced since the previous sweep is spilled: its model is saved as a snapshot to a spill file and
+ * dropped, to be restored by its next input (see {@link Session}). A session counting down or whose player timer is
+ * running is not idle, and a session whose last spill failed is kept until its next input; the sweep skips both,
+ * so the engine may exceed its bound while too many sessions are busy. A spilled session only keeps its id,
+ * counters and spill slot in memory, so an engine holds far more registered players than resident models fit on
+ * the heap.
+ */
+public class SessionEngine implements AutoCloseable{
+
+    private final ExecutorService[] executors;
+    private final TimingWheel[] wheels; /* one per executor */
+    private final Map<Long, Session> sessions;
+    private final AtomicLong ids;
+    private final SplittableRandom seeds; /* guarded by itself */
+    private final LongAdder inputs;
+    private final long creation; /* nanoseconds */
+    private final SpillFile spill; /* null if the resident sessions are not bounded */
+    private final int maxResident;
+    private final ResidentNode lru; /* sentinel of the resident list, eldest first, guarded by itself */
+    private int residentCount; /* guarded by lru */
+    private final LongAdder spills;
+    private final LongAdder failures;
+    private volatile BiConsumer<Session, RuntimeException> failureHandler;
+
+    /**
+     * Creates a new SessionEngine using one executor per available processor.
+     */
+    public SessionEngine(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new SessionEngine using the given number of executors.
+     *
+     * @param parallelism the number of executors, hence of sessions run in parallel
+     * @throws IllegalArgumentException if the parallelism is less than 1.
+     */
+    public SessionEngine(int parallelism){
+        this(parallelism, (SpillFile) null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new SessionEngine using the given number of executors and keeping at most the given number of
+     * sessions resident in memory, the idle ones being spilled to the given file. The spill file is created, or
+     * truncated if it exists, and deleted when the engine is closed. A resident session takes a few hundred bytes
+     * and its spilled snapshot a few dozen bytes of the file, plus the length of its sequences divided by 4.
+     *
+     * @param parallelism the number of executors, hence of sessions run in parallel
+     * @param spillFile the file to which the idle sessions are spilled
+     * @param maxResident the maximum number of sessions resident in memory
+     * @throws IOException if the spill file cannot be created.
+     * @throws IllegalArgumentException if the parallelism or the maximum number of resident sessions is less
+     * than 1.
+     */
+    public SessionEngine(int parallelism, Path spillFile, int maxResident) throws IOException{
+        this(parallelism, new SpillFile(spillFile), maxResident);
+    }
+
+    private SessionEngine(int parallelism, SpillFile spill, int maxResident){
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        if(maxResident < 1)
+            throw new IllegalArgumentException("Invalid maximum resident sessions: " + maxResident);
+
+        executors = new ExecutorService[parallelism];
+        wheels = new TimingWheel[parallelism];
+        for(int i = 0; i < parallelism; i++){
+            String name = "simon-engine-" + i;
+            executors[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            wheels[i] = new TimingWheel();
+        }
+
+        sessions = new ConcurrentHashMap<>();
+        ids = new AtomicLong();
+        seeds = new SplittableRandom();
+        inputs = new LongAdder();
+        creation = System.nanoTime();
+        this.spill = spill;
+        this.maxResident = maxResident;
+        lru = new ResidentNode();
+        lru.lruPrev = lru.lruNext = lru;
+        spills = new LongAdder();
+        failures = new LongAdder();
+    }
+
+    /**
+     * Creates a new session with a fresh id and a random session seed.
+     *
+     * @return the created session.
+     */
+    public Session create(){
+        long seed;
+        synchronized(seeds){
+            seed = seeds.nextLong();
+        }
+
+        Session session;
+        do{
+            session = create(ids.incrementAndGet(), seed);
+        } while(session == null);
+
+        return session;
+    }
+
+    /**
+     * Creates a new session using the given id and session seed. The model of the session is initialized on its
+     * executor before running any input.
+     *
+     * @param id the id of the session
+     * @param seed the session seed of its model
+     * @return the created session or null if a session with the given id already exists.
+     */
+    public Session create(long id, long seed){
+        int index = Math.floorMod(mix(id), executors.length);
+        Session session = new Session(this, id, seed, wheels[index], executors[index]);
+        if(sessions.putIfAbsent(id, session) != null)
+            return null;
+
+        session.execute(Model::init);
+        return session;
+    }
+
+    /**
+     * Gets the session linked to the given id.
+     *
+     * @param id the session id
+     * @return the optional session linked to the given id.
+     */
+    public Optional<Session> get(long id){
+        return Optional.ofNullable(sessions.get(id));
+    }
+
+    /**
+     * Evicts the session linked to the given id. The inputs still pending on the session are dropped and its player
+     * timer is cancelled.
+     *
+     * @param id the session id
+     * @return the optional evicted session.
+     */
+    public Optional<Session> evict(long id){
+        Session session = sessions.remove(id);
+        if(session != null){
+            session.evict();
+            unlink(session);
+        }
+
+        return Optional.ofNullable(session);
+    }
+
+    /**
+     * Gets the number of sessions currently hosted by this engine.
+     *
+     * @return the session count.
+     */
+    public int getSessionCount(){
+        return sessions.size();
+    }
+
+    /**
+     * Gets the number of sessions currently resident in memory, which is the session count if the resident
+     * sessions are not bounded.
+     *
+     * @return the resident session count.
+     */
+    public int getResidentCount(){
+        if(spill == null)
+            return sessions.size();
+
+        synchronized(lru){
+            return residentCount;
+        }
+    }
+
+    /**
+     * Gets the number of times a session has been spilled to the spill file since this engine was created.
+     *
+     * @return the spill count.
+     */
+    public long getSpillCount(){
+        return spills.sum();
+    }
+
+    /**
+     * Gets the number of sessions evicted since this engine was created because one of their inputs failed.
+     *
+     * @return the failed session count.
+     */
+    public long getFailureCount(){
+        return failures.sum();
+    }
+
+    /**
+     * Sets the handler notified, on the executor of the session, of each session failed by one of its inputs, once
+     * the session has been evicted (see {@link Session#getFailure()}). Without handler, the failures are reported
+     * to the uncaught exception handler of the executor thread, which keeps running.
+     *
+     * @param handler the failure handler or null
+     */
+    public void setFailureHandler(BiConsumer<Session, RuntimeException> handler){
+        failureHandler = handler;
+    }
+
+    /**
+     * Gets the number of executors of this engine.
+     *
+     * @return the parallelism of this engine.
+     */
+    public int getParallelism(){
+        return executors.length;
+    }
+
+    /**
+     * Gets the number of inputs handled by all the sessions of this engine, evicted ones included.
+     *
+     * @return the aggregate input count.
+     */
+    public long getInputCount(){
+        return inputs.sum();
+    }
+
+    /**
+     * Gets the average number of inputs handled per second by all the sessions of this engine since it was
+     * created.
+     *
+     * @return the aggregate input throughput.
+     */
+    public double getThroughput(){
+        return perSecond(inputs.sum(), System.nanoTime() - creation);
+    }
+
+    /**
+     * Evicts all the sessions, stops the timing wheels and shuts the executors of this engine down, waiting for the
+     * running inputs to be over. The spill file is then deleted. If the calling thread is interrupted while waiting,
+     * the executors are shut down without waiting any longer and the interrupt status of the thread is restored.
+     *
+     * @throws IOException if the spill file cannot be closed
+     */
+    @Override
+    public void close() throws IOException{
+        sessions.keySet().forEach(this::evict);
+        for(TimingWheel wheel : wheels) /* before the executors, which would reject the expired timers */
+            wheel.close();
+        for(ExecutorService executor : executors)
+            executor.shutdown();
+        try{
+            for(ExecutorService executor : executors)
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch(InterruptedException exc){
+            for(ExecutorService executor : executors)
+                executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if(spill != null)
+            spill.close();
+    }
+
+    void countInput(){
+        inputs.increment();
+    }
+
+    void fail(Session session, RuntimeException exc){ /* on the executor of the session */
+        session.setFailure(exc);
+        failures.increment();
+        evict(session.getId());
+        BiConsumer<Session, RuntimeException> handler = failureHandler;
+        if(handler != null)
+            handler.accept(session, exc);
+        else
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), exc);
+    }
+
+    void countSpill(){
+        spills.increment();
+    }
+
+    SpillFile getSpillFile(){
+        return spill;
+    }
+
+    void touch(Session session){ /* any thread, before submitting an input */
+        if(spill == null)
+            return;
+
+        if(session.resident){ /* no lock, the sweep reads the reference */
+            session.referenced = true;
+            return;
+        }
+
+        synchronized(lru){
+            if(session.isEvicted() || session.resident)
+                return;
+
+            session.referenced = true; /* not the victim of its own sweep */
+            link(session);
+            sweep();
+        }
+    }
+
+    void relink(Session session){ /* the executor of a session restored or kept resident, never spills another one */
+        if(spill == null)
+            return;
+
+        synchronized(lru){
+            if(!session.isEvicted() && !session.resident)
+                link(session);
+        }
+    }
+
+    private void sweep(){ /* under the lock, spills the eldest unreferenced idle sessions beyond the bound */
+        for(int scanned = 0, bound = 2 * residentCount; residentCount > maxResident && scanned < bound; scanned++){
+            Session eldest = (Session) lru.lruNext;
+            unlink(eldest);
+            if(eldest.referenced || !eldest.isSpillable()){ /* second chance, at the recent end */
+                eldest.referenced = false;
+                link(eldest);
+            } else
+                eldest.spill(spill); /* before the inputs submitted after this one */
+        }
+    }
+
+    private void link(Session session){ /* under the lock, at the recent end */
+        session.lruPrev = lru.lruPrev;
+        session.lruNext = lru;
+        lru.lruPrev.lruNext = session;
+        lru.lruPrev = session;
+        session.resident = true;
+        residentCount++;
+    }
+
+    private void unlink(Session session){
+        if(spill == null)
+            return;
+
+        synchronized(lru){
+            if(!session.resident)
+                return;
+
+            session.lruPrev.lruNext = session.lruNext;
+            session.lruNext.lruPrev = session.lruPrev;
+            session.lruPrev = session.lruNext = null;
+            session.resident = false;
+            residentCount--;
+        }
+    }
+
+    static double perSecond(long count, long nanos){
+        return nanos <= 0 ? 0. : count * 1e9 / nanos;
+    }
+
+    private static long mix(long id){ /* spreads sequential ids over the executors (SplitMix64 finalizer) */
+        id = (id ^ (id >>> 30)) * 0xbf58476d1ce4e5b9L;
+        id = (id ^ (id >>> 27)) * 0x94d049bb133111ebL;
+        return id ^ (id >>> 31);
+    }
+}
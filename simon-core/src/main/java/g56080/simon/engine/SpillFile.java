@@ -0,0 +1,75 @@
+package g56080.simon.engine;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The spill file of a {@link SessionEngine}, holding the snapshots of the sessions evicted from memory. Each
+ * session owns a slot of the file, a power of two of at least 64 bytes, reused as long as its snapshots fit in it;
+ * a larger slot is taken otherwise. The slots released by evicted or outgrown sessions are kept in one free list per
+ * slot size and taken again before the file grows. Slots are written and read with positional I/O, so the executors
+ * of the engine spill and reload their sessions concurrently. The file is deleted when closed.
+ */
+final class SpillFile implements AutoCloseable{
+
+    private final static int MIN_SLOT = 64;
+
+    private final FileChannel channel;
+    private final AtomicLong end;
+    private final List<ConcurrentLinkedQueue<Long>> free; /* released offsets, indexed by log2 of the slot size */
+
+    SpillFile(Path file) throws IOException{
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        end = new AtomicLong();
+        free = new ArrayList<>(Integer.SIZE);
+        for(int i = 0; i < Integer.SIZE; i++)
+            free.add(new ConcurrentLinkedQueue<>());
+    }
+
+    static int slotSize(int length){
+        return Math.max(MIN_SLOT, Integer.highestOneBit(length - 1) << 1);
+    }
+
+    long allocate(int slotSize){
+        Long released = free.get(Integer.numberOfTrailingZeros(slotSize)).poll();
+        return released != null ? released : end.getAndAdd(slotSize);
+    }
+
+    void release(long offset, int slotSize){
+        free.get(Integer.numberOfTrailingZeros(slotSize)).offer(offset);
+    }
+
+    void write(long offset, byte[] data) throws IOException{
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while(buffer.hasRemaining())
+            channel.write(buffer, offset + buffer.position());
+    }
+
+    byte[] read(long offset, int length) throws IOException{
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer, offset + buffer.position()) < 0)
+                throw new EOFException("Truncated spill slot at " + offset);
+        }
+
+        return buffer.array();
+    }
+
+    long size(){
+        return end.get();
+    }
+
+    @Override
+    public void close() throws IOException{
+        channel.close();
+    }
+}
@@ -0,0 +1,118 @@
+package g56080.simon.journal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import g56080.simon.model.Model;
+
+/**
+ * A reader of the records of a journal written by a {@link JournalWriter}. The reader moves from one record to the
+ * next with {@link #next()} and exposes the fields of the current record.
+ */
+public class JournalReader implements AutoCloseable{
+
+    private final static Model.Input[] INPUTS = Model.Input.values();
+
+    private final DataInputStream in;
+    private Model.Input input;
+    private long time, arg; /* milliseconds since the journal creation */
+
+    /**
+     * Creates a new JournalReader reading from the given stream and checks the journal header.
+     *
+     * @param in the input stream of the journal
+     * @throws IOException if the header could not be read or is not the one of a supported journal
+     */
+    public JournalReader(InputStream in) throws IOException{
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if(this.in.readInt() != JournalWriter.MAGIC)
+            throw new IOException("Not a Simon journal");
+
+        int version = this.in.readUnsignedByte();
+        if(version != JournalWriter.VERSION)
+            throw new IOException("Unsupported journal version: " + version);
+    }
+
+    /**
+     * Reads the next record of the journal.
+     *
+     * @return true if a record has been read, false if the end of the journal has been reached.
+     * @throws IOException if the record could not be read or is corrupted
+     */
+    public boolean next() throws IOException{
+        int tag = in.read();
+        if(tag < 0)
+            return false;
+
+        if((tag & 0x0F) >= INPUTS.length)
+            throw new IOException("Invalid record tag: " + tag);
+
+        input = INPUTS[tag & 0x0F];
+        time += readVarint();
+        switch(input){
+            case CLICK:
+                arg = tag >>> 4;
+                break;
+            case START:
+            case LAST:
+            case LONGUEST:
+                arg = in.readLong();
+                break;
+            default:
+                arg = 0;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the input of the current record.
+     *
+     * @return the recorded input.
+     */
+    public Model.Input getInput(){
+        return input;
+    }
+
+    /**
+     * Gets the time of the current record, counted from the creation of the journal.
+     *
+     * @return the record time in milliseconds.
+     */
+    public long getTime(){
+        return time;
+    }
+
+    /**
+     * Gets the argument of the current record: the game seed for START, LAST and LONGUEST, the pad id for CLICK,
+     * 0 otherwise.
+     *
+     * @return the record argument.
+     */
+    public long getArg(){
+        return arg;
+    }
+
+    @Override
+    public void close() throws IOException{
+        in.close();
+    }
+
+    private long readVarint() throws IOException{
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            int b = in.read();
+            if(b < 0)
+                throw new EOFException("Truncated record");
+
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0)
+                return value;
+        }
+
+        throw new IOException("Invalid varint");
+    }
+}
@@ -0,0 +1,150 @@
+package g56080.simon.journal;
+
+import java.io.IOException;
+
+import g56080.simon.model.ChronoTimer;
+import g56080.simon.model.Model;
+import g56080.simon.model.ObservableListener;
+
+/**
+ * A replayer of the journals written by a {@link JournalWriter}. The replayer owns a model on which it applies the
+ * recorded inputs in order, as fast as possible: the recorded timeouts take end the player timer of the model
+ * directly instead of waiting for it. The listeners subscribed to the model receive the same events as during the
+ * recorded games, and {@link #getTime()} gives the recorded time of the input being replayed.
+ *
+ * <p>The games are generated again from their recorded seed. A last or longuest game replays the sequence of a
+ * previous game of the journal, so the journal must have been recorded from the start of the session for these
+ * games to be replayed identically.
+ */
+public class JournalReplayer{
+
+    private final static Runnable NO_ACTION = () -> {};
+
+    private final ReplayTimer timer;
+    private final Model model;
+    private long time;
+
+    /**
+     * Creates a new JournalReplayer with its own model.
+     */
+    public JournalReplayer(){
+        timer = new ReplayTimer();
+        model = new Model(timer, 0L);
+    }
+
+    /**
+     * Subscribes the given listener to the model of this replayer.
+     *
+     * @param listener the listener to subscribe
+     */
+    public void subscribe(ObservableListener listener){
+        model.subscribe(listener);
+    }
+
+    /**
+     * Gets the model on which the journal is replayed.
+     *
+     * @return the model of this replayer.
+     */
+    public Model getModel(){
+        return model;
+    }
+
+    /**
+     * Gets the recorded time of the input being (or last) replayed.
+     *
+     * @return the record time in milliseconds since the journal creation.
+     */
+    public long getTime(){
+        return time;
+    }
+
+    /**
+     * Replays all the remaining records of the given journal.
+     *
+     * @param reader the journal reader
+     * @return the number of replayed records.
+     * @throws IOException if the journal could not be read
+     * @throws IllegalStateException if a recorded timeout occurs while no player timer is running.
+     */
+    public long replay(JournalReader reader) throws IOException{
+        long count = 0;
+        while(step(reader))
+            count++;
+
+        return count;
+    }
+
+    /**
+     * Replays the next record of the given journal.
+     *
+     * @param reader the journal reader
+     * @return true if a record has been replayed, false if the end of the journal has been reached.
+     * @throws IOException if the journal could not be read
+     * @throws IllegalStateException if a recorded timeout occurs while no player timer is running.
+     */
+    public boolean step(JournalReader reader) throws IOException{
+        if(!reader.next())
+            return false;
+
+        time = reader.getTime();
+        switch(reader.getInput()){
+            case INIT:
+                model.init();
+                break;
+            case START:
+                model.setSeed(reader.getArg());
+                model.start();
+                break;
+            case LAST:
+                model.setSeed(reader.getArg());
+                model.last();
+                break;
+            case LONGUEST:
+                model.setSeed(reader.getArg());
+                model.longuest();
+                break;
+            case SEQUENCE_OVER:
+                model.sequenceOver();
+                break;
+            case CLICK:
+                model.click((int) reader.getArg());
+                break;
+            case NEXT_LEVEL:
+                model.nextLevel();
+                break;
+            case TIMEOUT:
+                timer.fire();
+                break;
+            case COUNTDOWN:
+                model.timer(NO_ACTION); /* the recorded action is the following start */
+                break;
+        }
+
+        return true;
+    }
+
+    private static class ReplayTimer implements ChronoTimer{ /* runs the task on the recorded timeout only */
+
+        private Runnable task;
+
+        @Override
+        public void start(long delay, Runnable task){
+            this.task = task;
+        }
+
+        @Override
+        public void cancel(){
+            task = null;
+        }
+
+        private void fire(){
+            if(task == null)
+                throw new IllegalStateException("Timeout recorded while no player timer is running");
+
+            Runnable running = task;
+            task = null;
+            running.run();
+        }
+    }
+}
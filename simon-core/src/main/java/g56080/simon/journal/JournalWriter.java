@@ -0,0 +1,189 @@
+package g56080.simon.journal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+import g56080.simon.model.InputRecorder;
+import g56080.simon.model.Model;
+
+/**
+ * An append-only replay journal recording the inputs of a {@link Model}. Set as the recorder of a model (see
+ * {@link Model#setRecorder(InputRecorder)}), the writer encodes each input into a buffer on the game thread, without
+ * allocating, and hands the full buffers to a shared background thread which writes them to the output stream, so
+ * the game thread never blocks on I/O.
+ *
+ * <p>The journal starts with a header made of the {@link #MAGIC} number and the {@link #VERSION} byte. Each record
+ * is then made of:
+ * <ul>
+ *   <li>a tag byte holding the ordinal of the input in its 4 low bits and the clicked pad id in its high bits;</li>
+ *   <li>the time elapsed since the previous record (or since the journal creation), in milliseconds, as an unsigned
+ *   varint (7 bits per byte, least significant group first);</li>
+ *   <li>for START, LAST and LONGUEST only, the game seed on 8 bytes, big-endian.</li>
+ * </ul>
+ * A click thus takes 2 bytes most of the time.
+ */
+public class JournalWriter implements InputRecorder, AutoCloseable{
+
+    /**
+     * The magic number starting a journal ("SMNJ").
+     */
+    public final static int MAGIC = 0x534D4E4A;
+
+    /**
+     * The version of the journal format.
+     */
+    public final static int VERSION = 2;
+
+    private final static int BUFFER_SIZE = 8192, MAX_RECORD = 1 + 10 + 8;
+    private static ExecutorService sharedExecutor;
+
+    private final OutputStream out;
+    private final LongSupplier clock;
+    private final ExecutorService executor;
+    private byte[] buffer;
+    private int position;
+    private long last; /* time of the previous record, in milliseconds */
+    private CompletableFuture<Void> written; /* completes when the buffers handed so far are written */
+
+    /**
+     * Creates a new JournalWriter writing to the given stream and timestamping the records with the wall clock.
+     *
+     * @param out the output stream of the journal
+     */
+    public JournalWriter(OutputStream out){
+        this(out, () -> System.nanoTime() / 1_000_000L);
+    }
+
+    /**
+     * Creates a new JournalWriter writing to the given stream and timestamping the records with the given clock
+     * (a {@link g56080.simon.model.GameClock} for example).
+     *
+     * @param out the output stream of the journal
+     * @param clock the clock giving the current time in milliseconds
+     */
+    public JournalWriter(OutputStream out, LongSupplier clock){
+        this.out = out;
+        this.clock = clock;
+        executor = getSharedExecutor();
+        buffer = new byte[BUFFER_SIZE];
+        written = CompletableFuture.completedFuture(null);
+        last = clock.getAsLong();
+        writeInt(MAGIC);
+        buffer[position++] = VERSION;
+    }
+
+    @Override
+    public void record(Model.Input input, long arg){
+        if(position + MAX_RECORD > buffer.length)
+            handOff();
+
+        long now = clock.getAsLong();
+        int tag = input.ordinal();
+        if(input == Model.Input.CLICK)
+            tag |= (int) arg << 4;
+        buffer[position++] = (byte) tag;
+        writeVarint(Math.max(0, now - last));
+        last = now;
+
+        if(input == Model.Input.START || input == Model.Input.LAST || input == Model.Input.LONGUEST){
+            writeInt((int) (arg >>> 32));
+            writeInt((int) arg);
+        }
+    }
+
+    /**
+     * Hands the buffered records to the background thread and waits for them, and all the previous ones, to be
+     * written and flushed.
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void flush() throws IOException{
+        handOff();
+        CompletableFuture<Void> flushed = written.thenRunAsync(() -> {
+            try{
+                out.flush();
+            } catch(IOException exc){
+                throw new UncheckedIOException(exc);
+            }
+        }, executor);
+        await(flushed);
+    }
+
+    /**
+     * Flushes and closes this journal and its output stream.
+     *
+     * @throws IOException if the journal could not be written or closed
+     */
+    @Override
+    public void close() throws IOException{
+        try{
+            flush();
+        } finally{
+            out.close();
+        }
+    }
+
+    private void handOff(){ /* gives the buffer to the background thread, a fresh one is used meanwhile */
+        if(position == 0)
+            return;
+
+        byte[] full = buffer;
+        int length = position;
+        written = written.thenRunAsync(() -> {
+            try{
+                out.write(full, 0, length);
+            } catch(IOException exc){
+                throw new UncheckedIOException(exc);
+            }
+        }, executor);
+        buffer = new byte[BUFFER_SIZE];
+        position = 0;
+    }
+
+    private void writeVarint(long value){
+        while((value & ~0x7FL) != 0){
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeInt(int value){
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private static void await(CompletableFuture<Void> future) throws IOException{
+        try{
+            future.get();
+        } catch(InterruptedException exc){
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the journal");
+        } catch(ExecutionException exc){
+            Throwable cause = exc.getCause() instanceof UncheckedIOException ? exc.getCause().getCause()
+                : exc.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    private static synchronized ExecutorService getSharedExecutor(){
+        if(sharedExecutor == null){
+            sharedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "simon-journal");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return sharedExecutor;
+    }
+}
@@ -0,0 +1,114 @@
+package g56080.simon.model;
+
+/**
+ * A simple timer class implemented using a pluggable {@link ChronoTimer} and a task describing
+ * the task to be performed when the timer takes end. The delay of the timer is the time limit of the current level,
+ * read from a {@link DifficultyTable}.
+ */
+public class Chrono{
+    
+    private final ChronoTimer timer;
+    private final Runnable task;
+    private final DifficultyTable table;
+    private int level;
+    private long timeLimit; /* milliseconds */
+
+    /**
+     * Creates a new Chrono using the given task to be executed when the timer takes end. The chrono will use 
+     * the time limits of the classic schedule (5 seconds at the first level).
+     *
+     * @param timer the timer backend used to schedule the task
+     * @param task the task to be executed on ending
+     */
+    public Chrono(ChronoTimer timer, Runnable task){
+        this(timer, task, DifficultyTable.CLASSIC);
+    }
+
+    /**
+     * Creates a new Chrono using the given task to be executed when the timer takes end and the time limits of the
+     * given difficulty table.
+     *
+     * @param timer the timer backend used to schedule the task
+     * @param task the task to be executed on ending
+     * @param table the difficulty table giving the time limit of each level
+     */
+    public Chrono(ChronoTimer timer, Runnable task, DifficultyTable table){
+        this.timer = timer;
+        this.task = task;
+        this.table = table;
+        init();
+    }
+
+    /**
+     * Starts this Chrono using its current time limit.
+     */
+    public void start(){
+        timer.start(timeLimit, task);
+    }
+
+    /**
+     * Cancels this Chrono by stopping it.
+     */
+    public void cancel(){
+        timer.cancel();
+    }
+
+    /**
+     * Upgrades this Chrono to the next level, reading its time limit from the difficulty table.
+     */
+    public void upgrade(){
+        timeLimit = table.getTimeLimit(++level);
+    }
+
+    /**
+     * Initializes this Chrono by setting its level to the first one.
+     */
+    public void init(){
+        setLevel(1);
+    }
+
+    /**
+     * Updates the time limit of this Chrono using the given level. The first level is 1.
+     *
+     * @param level the level to be used by this Chrono
+     * @throws IllegalArgumentException if the given level is less than 1.
+     */
+    public void setLevel(int level){
+        if(level < 1)
+            throw new IllegalArgumentException("Invalid level");
+
+        this.level = level;
+        timeLimit = table.getTimeLimit(level);
+    }
+
+    /**
+     * Sets the time limit of this chrono, restored from a model snapshot for example. The level is kept.
+     *
+     * @param timeLimit the time limit in milliseconds
+     * @throws IllegalArgumentException if the time limit is less than 1.
+     */
+    public void setTimeLimit(long timeLimit){
+        if(timeLimit < 1)
+            throw new IllegalArgumentException("Invalid time limit");
+
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Gets the time limit of this Chrono in seconds, rounded up.
+     *
+     * @return the time value of this Chrono.
+     */
+    public int getTime(){
+        return (int) ((timeLimit + 999) / 1000);
+    }
+
+    /**
+     * Gets the time limit of this Chrono.
+     *
+     * @return the time limit in milliseconds.
+     */
+    public long getTimeLimit(){
+        return timeLimit;
+    }
+}
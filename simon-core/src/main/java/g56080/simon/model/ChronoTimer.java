@@ -0,0 +1,24 @@
+package g56080.simon.model;
+
+/**
+ * The timer backend used by a {@link Chrono} to schedule its ending task. Implementations decide on which
+ * thread the task is run (the JavaFx application thread for the user interface, a scheduler thread for
+ * headless games, ...).
+ */
+public interface ChronoTimer{
+
+    /**
+     * Starts this timer so that the given task is run once the given delay has elapsed. Starting a timer
+     * that is already running restarts it with the new delay and task.
+     *
+     * @param delay the delay in milliseconds before running the task
+     * @param task the task to be run when the timer takes end
+     */
+    void start(long delay, Runnable task);
+
+    /**
+     * Cancels this timer. The previously started task will not be run. Cancelling a timer that is not
+     * running has no effect.
+     */
+    void cancel();
+}
@@ -0,0 +1,36 @@
+package g56080.simon.model;
+
+/**
+ * A ChronoTimer scheduling its task on a {@link GameClock}. The task is run by the thread driving the clock.
+ */
+public class ClockChronoTimer implements ChronoTimer{
+
+    private final GameClock clock;
+    private GameClock.Scheduled pending;
+
+    /**
+     * Creates a new ClockChronoTimer scheduling its task on the given clock.
+     *
+     * @param clock the clock on which the task is scheduled
+     */
+    public ClockChronoTimer(GameClock clock){
+        this.clock = clock;
+    }
+
+    @Override
+    public void start(long delay, Runnable task){
+        cancel();
+        pending = clock.schedule(delay, () -> {
+            pending = null;
+            task.run();
+        });
+    }
+
+    @Override
+    public void cancel(){
+        if(pending != null){
+            pending.cancel();
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package g56080.simon.model;
+
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A difficulty schedule giving, for each level of a game, the length of the sequence, the time limit of the player
+ * turn and the tempo at which the sequence is played. A schedule is only evaluated when a {@link DifficultyTable} is
+ * built from it, so it may be as costly as needed; the model then reads the precomputed table.
+ */
+public interface DifficultySchedule{
+
+    /**
+     * The classic schedule: one pad per level, a time limit of 5 seconds at the first level growing by one second
+     * per level, and one step every 1.2 seconds.
+     */
+    DifficultySchedule CLASSIC = of(level -> level, level -> (4L + level) * 1000L, level -> 1200L);
+
+    /**
+     * The expert schedule: one pad per level, a time limit of 1.5 seconds plus 400 milliseconds per pad, and a tempo
+     * speeding up from 800 milliseconds per step down to 250 milliseconds.
+     */
+    DifficultySchedule EXPERT = of(level -> level, level -> 1500L + 400L * level,
+            level -> Math.max(250L, 800L - 25L * (level - 1)));
+
+    /**
+     * Gets the length of the sequence at the given level.
+     *
+     * @param level the level, from 1
+     * @return the number of pads of the sequence.
+     */
+    int getLength(int level);
+
+    /**
+     * Gets the time limit of the player turn at the given level.
+     *
+     * @param level the level, from 1
+     * @return the time limit in milliseconds.
+     */
+    long getTimeLimit(int level);
+
+    /**
+     * Gets the tempo at which the sequence is played at the given level.
+     *
+     * @param level the level, from 1
+     * @return the period between two steps of the sequence, in milliseconds.
+     */
+    long getTempo(int level);
+
+    /**
+     * Creates a schedule from the given functions of the level.
+     *
+     * @param length the sequence length per level
+     * @param timeLimit the time limit per level, in milliseconds
+     * @param tempo the period between two steps per level, in milliseconds
+     * @return the created schedule.
+     */
+    static DifficultySchedule of(IntUnaryOperator length, IntToLongFunction timeLimit, IntToLongFunction tempo){
+        return new DifficultySchedule(){
+
+            @Override
+            public int getLength(int level){
+                return length.applyAsInt(level);
+            }
+
+            @Override
+            public long getTimeLimit(int level){
+                return timeLimit.applyAsLong(level);
+            }
+
+            @Override
+            public long getTempo(int level){
+                return tempo.applyAsLong(level);
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package g56080.simon.model;
+
+import java.util.Arrays;
+
+/**
+ * A {@link DifficultySchedule} precomputed into primitive lookup tables, one entry per level, so that a level-up
+ * only reads an array. A table is immutable and is meant to be built once and shared by all the models playing the
+ * same schedule.
+ *
+ * <p>The table covers a fixed number of levels. Beyond the last one, the sequence keeps growing by the length step
+ * of the last level (one pad at least) while the time limit and the tempo stay those of the last level.
+ */
+public final class DifficultyTable{
+
+    /**
+     * The table of the {@link DifficultySchedule#CLASSIC} schedule, used by default.
+     */
+    public final static DifficultyTable CLASSIC = new DifficultyTable(DifficultySchedule.CLASSIC);
+
+    /**
+     * The default number of levels covered by a table.
+     */
+    public final static int DEFAULT_LEVELS = 4096;
+
+    private final int[] lengths, timeLimits, tempos; /* indexed by level, entry 0 unused */
+    private final int last, step; /* last level covered and length step beyond it */
+
+    /**
+     * Creates a new DifficultyTable covering the {@link #DEFAULT_LEVELS} first levels of the given schedule.
+     *
+     * @param schedule the schedule to precompute
+     * @throws IllegalArgumentException if the schedule is invalid (see {@link #DifficultyTable(DifficultySchedule,
+     * int)}).
+     */
+    public DifficultyTable(DifficultySchedule schedule){
+        this(schedule, DEFAULT_LEVELS);
+    }
+
+    /**
+     * Creates a new DifficultyTable covering the given number of first levels of the given schedule. The schedule
+     * must give a length of at least 1 at the first level, a non-decreasing length, and positive time limits and
+     * tempos fitting an int.
+     *
+     * @param schedule the schedule to precompute
+     * @param levels the number of levels covered by the table
+     * @throws IllegalArgumentException if the number of levels is less than 1 or if the schedule is invalid.
+     */
+    public DifficultyTable(DifficultySchedule schedule, int levels){
+        if(levels < 1)
+            throw new IllegalArgumentException("Invalid level count: " + levels);
+
+        lengths = new int[levels + 1];
+        timeLimits = new int[levels + 1];
+        tempos = new int[levels + 1];
+        for(int level = 1; level <= levels; level++){
+            lengths[level] = schedule.getLength(level);
+            timeLimits[level] = toInt(schedule.getTimeLimit(level), level);
+            tempos[level] = toInt(schedule.getTempo(level), level);
+            if(lengths[level] < Math.max(1, lengths[level - 1]))
+                throw new IllegalArgumentException("Invalid length at level " + level + ": " + lengths[level]);
+        }
+
+        last = levels;
+        step = levels == 1 ? 1 : Math.max(1, lengths[levels] - lengths[levels - 1]);
+    }
+
+    /**
+     * Gets the length of the sequence at the given level.
+     *
+     * @param level the level, from 1
+     * @return the number of pads of the sequence.
+     */
+    public int getLength(int level){
+        return level <= last ? lengths[level] : lengths[last] + (level - last) * step;
+    }
+
+    /**
+     * Gets the time limit of the player turn at the given level.
+     *
+     * @param level the level, from 1
+     * @return the time limit in milliseconds.
+     */
+    public long getTimeLimit(int level){
+        return timeLimits[Math.min(level, last)];
+    }
+
+    /**
+     * Gets the tempo at which the sequence is played at the given level.
+     *
+     * @param level the level, from 1
+     * @return the period between two steps of the sequence, in milliseconds.
+     */
+    public long getTempo(int level){
+        return tempos[Math.min(level, last)];
+    }
+
+    /**
+     * Gets the first level whose sequence holds at least the given number of pads, the level at which a replayed
+     * sequence of this length is played.
+     *
+     * @param length the number of pads of the sequence
+     * @return the level of the sequence, 1 at least.
+     */
+    public int getLevel(int length){
+        if(length > lengths[last])
+            return last + (length - lengths[last] + step - 1) / step;
+
+        int index = Arrays.binarySearch(lengths, 1, last + 1, length);
+        if(index < 0)
+            return Math.max(1, -index - 1);
+
+        while(index > 1 && lengths[index - 1] == length) /* first level of a run of equal lengths */
+            index--;
+        return index;
+    }
+
+    /**
+     * Gets the number of levels covered by this table.
+     *
+     * @return the level count.
+     */
+    public int getLevelCount(){
+        return last;
+    }
+
+    private static int toInt(long millis, int level){
+        if(millis < 1 || millis > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid time at level " + level + ": " + millis);
+
+        return (int) millis;
+    }
+}
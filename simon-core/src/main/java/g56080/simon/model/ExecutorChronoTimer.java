@@ -0,0 +1,93 @@
+package g56080.simon.model;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A headless ChronoTimer backed by a ScheduledExecutorService. The delay elapses on the scheduler and the task is
+ * then handed to the owner executor, the one running the inputs of the model the timer belongs to, so that the
+ * task never races with them. A task handed over after the timer has been cancelled or restarted is dropped by the
+ * owner. This is the timer backend of the headless models.
+ */
+public class ExecutorChronoTimer implements ChronoTimer{
+
+    private static ScheduledExecutorService sharedExecutor;
+
+    private final ScheduledExecutorService executor;
+    private final Executor owner;
+    private ScheduledFuture<?> pending;
+    private long generation; /* incremented on each start and cancel */
+
+    /**
+     * Creates a new ExecutorChronoTimer using a lazily created single-threaded daemon executor shared by all the
+     * timers built with this constructor. The task is run by the thread of this executor, which therefore has to
+     * own the model.
+     */
+    public ExecutorChronoTimer(){
+        this(getSharedExecutor());
+    }
+
+    /**
+     * Creates a new ExecutorChronoTimer scheduling and running its task on the given executor.
+     *
+     * @param executor the executor on which the task is scheduled and run
+     */
+    public ExecutorChronoTimer(ScheduledExecutorService executor){
+        this(executor, executor);
+    }
+
+    /**
+     * Creates a new ExecutorChronoTimer scheduling its task on the given executor and running it on the given
+     * owner executor.
+     *
+     * @param executor the executor on which the task is scheduled
+     * @param owner the executor on which the task is run
+     */
+    public ExecutorChronoTimer(ScheduledExecutorService executor, Executor owner){
+        this.executor = executor;
+        this.owner = owner;
+    }
+
+    @Override
+    public synchronized void start(long delay, Runnable task){
+        cancel();
+        long armed = generation;
+        Runnable fire = () -> fire(armed, task);
+        pending = executor.schedule(owner == executor ? fire : () -> owner.execute(fire), delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void cancel(){
+        generation++;
+        if(pending != null){
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private void fire(long armed, Runnable task){ /* on the owner, drops the task if cancelled or restarted meanwhile */
+        synchronized(this){
+            if(generation != armed)
+                return;
+
+            generation++;
+            pending = null;
+        }
+        task.run();
+    }
+
+    static synchronized ScheduledExecutorService getSharedExecutor(){
+        if(sharedExecutor == null){
+            sharedExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "simon-chrono");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return sharedExecutor;
+    }
+}
@@ -0,0 +1,40 @@
+package g56080.simon.model;
+
+/**
+ * The clock on which the timed parts of a game are scheduled: the player timer of the model (through a
+ * {@link ClockChronoTimer}) and the playback of the sequences by a view. Injecting the clock allows a game to run
+ * on the wall-clock time of a user interface as well as on the simulated time of a {@link VirtualClock}, on which
+ * a whole game, timeouts included, runs without waiting.
+ */
+public interface GameClock{
+
+    /**
+     * A task scheduled on a clock, that can be cancelled before it is run.
+     */
+    @FunctionalInterface
+    interface Scheduled{
+
+        /**
+         * Cancels this task so that it is not run. Cancelling a task that has already been run or cancelled has
+         * no effect.
+         */
+        void cancel();
+    }
+
+    /**
+     * Gets the current time of this clock.
+     *
+     * @return the current time in milliseconds, from an arbitrary origin.
+     */
+    long millis();
+
+    /**
+     * Schedules the given task to be run once the given delay has elapsed on this clock. The tasks scheduled on
+     * the same time are run in scheduling order.
+     *
+     * @param delay the delay in milliseconds before running the task
+     * @param task the task to be run
+     * @return the scheduled task, to cancel it.
+     */
+    Scheduled schedule(long delay, Runnable task);
+}
@@ -0,0 +1,20 @@
+package g56080.simon.model;
+
+/**
+ * A recorder of the inputs driving a {@link Model}, notified synchronously by the model on each legal input before
+ * it is applied; the inputs rejected by the model are not recorded. Unlike the listeners, which receive the
+ * resulting state changes, a recorder sees every click and can therefore record a game so that it can be replayed.
+ * The recorder is called on the hot path of the model: it must not allocate nor block.
+ */
+@FunctionalInterface
+public interface InputRecorder{
+
+    /**
+     * Records the given input.
+     *
+     * @param input the input applied to the model
+     * @param arg the argument of the input: the game seed for START, LAST and LONGUEST, the pad id for CLICK, 0
+     * otherwise
+     */
+    void record(Model.Input input, long arg);
+}
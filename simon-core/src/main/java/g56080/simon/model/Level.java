@@ -3,28 +3,40 @@ package g56080.simon.model;
 /**
  * A mutable level object that can be upgraded and which is used (by the model typically) 
  * to generate the proper number of colors to be played as the player progresses through 
- * the game.
+ * the game. The count of each level, the length of its sequence, is read from a {@link DifficultyTable}.
  */
 public class Level{
     
+    private final DifficultyTable table;
     private int level;
     private int count;
 
-    private final static int BASE_LEVEL = 1, BASE_COUNT = 1;
+    private final static int BASE_LEVEL = 1;
 
     /**
-     * Creates a new Level using the default BASE_LEVEL and BASE_COUNT values (respectively 1 and 1).
+     * Creates a new Level using the default BASE_LEVEL value (1) and the classic schedule.
      */
     public Level(){
         this(BASE_LEVEL);
     }
 
     /**
-     * Creates a new Level using the given level value.
+     * Creates a new Level using the given level value and the classic schedule.
      *
      * @param level the initial level of this object
      */
     public Level(int level){
+        this(level, DifficultyTable.CLASSIC);
+    }
+
+    /**
+     * Creates a new Level using the given level value and the counts of the given difficulty table.
+     *
+     * @param level the initial level of this object
+     * @param table the difficulty table giving the count of each level
+     */
+    public Level(int level, DifficultyTable table){
+        this.table = table;
         setLevel(level);
     }
 
@@ -38,8 +50,8 @@ public class Level{
     }
 
     /**
-     * Gets the current count value associated to the current level of this object. The count value
-     * starts at BASE_COUNT (which is 1) and is incremented by the current level - 1.
+     * Gets the current count value associated to the current level of this object, the length of the sequence
+     * at this level (the level itself with the classic schedule).
      *
      * @return the count value of this object.
      */
@@ -48,25 +60,22 @@ public class Level{
     }
 
     /**
-     * Upgrades this Level object by incrementing its level and count values by one.
+     * Upgrades this Level object by incrementing its level by one and reading its count from the difficulty table.
      */
     public void upgrade(){
-        level++;
-        count++;
+        count = table.getLength(++level);
     }
 
     /**
-     * Initializes this Level object by setting its level and count values to BASE_LEVEL and BASE_COUNT
-     * respectively.
+     * Initializes this Level object by setting its level to BASE_LEVEL.
      */
     public void init(){
-        level = BASE_LEVEL;
-        count = BASE_COUNT;
+        setLevel(BASE_LEVEL);
     }
 
     /**
      * Sets the current level value of this object to the given level. The count value associated to this object
-     * is also updated accordingly following the formula: <code>BASE_COUNT + (level - 1)</code>.
+     * is also updated accordingly from the difficulty table.
      *
      * @param level the level to be used by this object
      * @throws IllegalArgumentException if the given level is less than BASE_LEVEL
@@ -76,6 +85,6 @@ public class Level{
             throw new IllegalArgumentException("Invalid level");
         
         this.level = level;
-        count = BASE_COUNT + (level - 1);
+        count = table.getLength(level);
     }
 }
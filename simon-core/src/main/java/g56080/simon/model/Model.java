@@ -0,0 +1,913 @@
+package g56080.simon.model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.SplittableRandom;
+
+/**
+ * The application model dedicated to handle the applications' logic by generating the color sequence for example or
+ * by starting the timer for each level. The model does not depend on any user interface toolkit: each color pad
+ * is represented by its zero-based id (between 0 inclusive and {@link #PAD_COUNT} exclusive) and the player
+ * timer is scheduled through a pluggable {@link ChronoTimer}.
+ *
+ * <p>Each model owns its random generator, seeded from the session seed given at creation. Each game is generated
+ * from its own seed (see {@link #getSeed()}), so any game can be generated again by calling {@link #setSeed(long)}
+ * before starting it. The generator of each game is split off the generator of the session: the games of a
+ * session draw independent streams, and a game only depends on its seed, whatever the games played before it with
+ * another seed. The n-th seed of a session is the n-th value drawn by a SplittableRandom seeded with the session
+ * seed.
+ *
+ * <p>The length of the sequence, the time limit and the tempo of each level are read from a precomputed
+ * {@link DifficultyTable}, the classic one by default.
+ *
+ * <p>The transitions of the model are given by a transition table keyed by the current state and the input (see
+ * {@link #accepts(Input)}). An input that is illegal in the current state, such as a click while the sequence is
+ * played, is rejected: the input method returns false without changing, recording or notifying anything, so
+ * untrusted inputs can be fed to the model at any rate. The outcome of an accepted click, ending the sequence or
+ * mismatching it, is looked up in the table as well.
+ *
+ * <p>The state of a model can be saved to a compact binary snapshot and restored later in the same model or in
+ * another one (see {@link #toSnapshot()}), to page an idle session out or to move it to another process.
+ *
+ * <p>A model is not thread-safe: it is owned by one thread, which runs its inputs and to which the timer backend
+ * hands the end of the player timer (the JavaFx application thread with a {@link ClockChronoTimer} on the frame
+ * scheduler of the view, the scheduler thread with the {@link ExecutorChronoTimer}). The timer backend is therefore
+ * always given explicitly at creation, as it decides the owner thread. Only {@link #subscribe} and
+ * {@link #unsubscribe} can be called from any thread.
+ */
+public class Model implements Observable{
+
+    /**
+     * The number of color pads of the game. Pad ids range from 0 (inclusive) to PAD_COUNT (exclusive).
+     */
+    public final static int PAD_COUNT = 4;
+
+    /**
+     * The version of the snapshot format written by {@link #toSnapshot()}.
+     */
+    public final static int SNAPSHOT_VERSION = 3;
+
+    /**
+     * The result of {@link #click(int[], long[])} when all the presses matched the sequence.
+     */
+    public final static int BATCH_MATCHED = -1;
+
+    /**
+     * The result of {@link #click(int[], long[])} when the batch has been rejected.
+     */
+    public final static int BATCH_REJECTED = -2;
+
+    /**
+     * Input enumeration gathering the inputs driving the model, as seen by an {@link InputRecorder}.
+     */
+    public enum Input{
+
+        /**
+         * The model is initialized ({@link #init()}).
+         */
+        INIT,
+
+        /**
+         * A normal game is started ({@link #start()}).
+         */
+        START,
+
+        /**
+         * A last game is started ({@link #last()}).
+         */
+        LAST,
+
+        /**
+         * A longuest game is started ({@link #longuest()}).
+         */
+        LONGUEST,
+
+        /**
+         * The sequence has been played to the user ({@link #sequenceOver()}).
+         */
+        SEQUENCE_OVER,
+
+        /**
+         * The user clicked on a pad ({@link #click(int)}).
+         */
+        CLICK,
+
+        /**
+         * The user moves to the next level ({@link #nextLevel()}).
+         */
+        NEXT_LEVEL,
+
+        /**
+         * The player timer took end.
+         */
+        TIMEOUT,
+
+        /**
+         * The countdown before a game is started ({@link #timer(Runnable)}). The countdown action is not recorded.
+         */
+        COUNTDOWN;
+    }
+
+    /**
+     * State enumeration gathering all the possible game states.
+     */
+    public enum State{
+
+        /**
+         * Init state, when the game hasn't been started.
+         */
+        GAME_NOT_STARTED, 
+
+        /**
+         * Transition state before the game starts, when the timer is running.
+         */
+        GAME_STARTED_TIMER, 
+        
+        /**
+         * Starting state, when the game has just started (whether it is a normal, last or longuest game)
+         */
+        GAME_STARTED, 
+        
+        /**
+         * Game state, when the user has to play the color sequence.
+         */
+        PLAYER_TURN, 
+        
+        /**
+         * Game state, when the sequence the user has to transcribe is running.
+         */
+        GAME_TURN, 
+        
+        /**
+         * Transition state, when the user succeeds the level and can move on to the next one.
+         */
+        NEXT_LEVEL, 
+        
+        /**
+         * Ending state, when the game is over (after a misplay or a timer exhaustion)
+         */
+        GAME_OVER, 
+        
+        /**
+         * Ending state, when the timer the user has to adhere takes end.
+         */
+        TIME_IS_OVER;
+    }
+    
+    private final static ObservableListener[] NO_LISTENERS = {};
+    private final static State[] STATES = State.values();
+    private final static int CLICK_LAST = Input.values().length, CLICK_WRONG = CLICK_LAST + 1; /* click outcomes */
+    private final static int COLUMNS = CLICK_WRONG + 1, UNINITIALIZED = STATES.length; /* row of null */
+    private final static byte[] TRANSITIONS; /* [state row * COLUMNS + column] = next state ordinal, -1 if illegal */
+    private final static int SHARED_LAST = 1, SHARED_LONGUEST = 2, SHARED_LONGUEST_LAST = 4; /* snapshot flags */
+
+    private volatile ObservableListener[] listeners; /* copy-on-write, replaced under the model lock */
+    private final Queue<ModelEvent> pending; /* events fired while dispatching, delivered by the running dispatch */
+    private ModelEvent event; /* last fired event */
+    private boolean dispatching;
+    private final Chrono chrono;
+    private final DifficultyTable difficulty;
+    private Level level;
+    private State state;
+    private PadSequence gameSequence;
+    private PadSequence longuestSequence, lastSequence;
+    private int cursor; /* index of the next pad the user has to play in gameSequence */
+    private long turnLimit; /* time limit of the running player turn, in milliseconds */
+    private final SplitMix64 seeds, random; /* the session generator and the game generator split off it */
+    private long seed;
+    private Runnable action;
+    private InputRecorder recorder;
+
+    static{
+        TRANSITIONS = new byte[(STATES.length + 1) * COLUMNS];
+        Arrays.fill(TRANSITIONS, (byte) -1);
+        for(int row = 0; row <= STATES.length; row++)
+            TRANSITIONS[row * COLUMNS + Input.INIT.ordinal()] = (byte) State.GAME_NOT_STARTED.ordinal();
+
+        allow(State.GAME_NOT_STARTED, Input.COUNTDOWN, State.GAME_STARTED_TIMER);
+        for(Input start : new Input[]{Input.START, Input.LAST, Input.LONGUEST}){
+            allow(State.GAME_NOT_STARTED, start, State.GAME_STARTED);
+            allow(State.GAME_STARTED_TIMER, start, State.GAME_STARTED);
+        }
+
+        allow(State.GAME_STARTED, Input.SEQUENCE_OVER, State.PLAYER_TURN);
+        allow(State.GAME_TURN, Input.SEQUENCE_OVER, State.PLAYER_TURN);
+        allow(State.PLAYER_TURN, Input.CLICK, State.PLAYER_TURN); /* then the outcome of the click */
+        allow(State.PLAYER_TURN, CLICK_LAST, State.NEXT_LEVEL);
+        allow(State.PLAYER_TURN, CLICK_WRONG, State.GAME_OVER);
+        allow(State.PLAYER_TURN, Input.TIMEOUT, State.TIME_IS_OVER);
+        allow(State.NEXT_LEVEL, Input.NEXT_LEVEL, State.GAME_TURN);
+    }
+
+    /**
+     * Creates a new Model using the given timer backend to schedule the player timer. The session seed is
+     * chosen randomly.
+     *
+     * @param timer the timer backend of the player timer
+     */
+    public Model(ChronoTimer timer){
+        this(timer, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a new Model using the given timer backend to schedule the player timer and the given session seed
+     * to derive the seed of each game. Two models created with the same session seed generate the same games.
+     *
+     * @param timer the timer backend of the player timer
+     * @param sessionSeed the seed from which the seed of each game is derived
+     */
+    public Model(ChronoTimer timer, long sessionSeed){
+        this(timer, sessionSeed, DifficultyTable.CLASSIC);
+    }
+
+    /**
+     * Creates a new Model using the given timer backend to schedule the player timer, the given session seed to
+     * derive the seed of each game and the given difficulty table, which may be shared by many models.
+     *
+     * @param timer the timer backend of the player timer
+     * @param sessionSeed the seed from which the seed of each game is derived
+     * @param difficulty the difficulty table giving the length, time limit and tempo of each level
+     */
+    public Model(ChronoTimer timer, long sessionSeed, DifficultyTable difficulty){
+        this.difficulty = difficulty;
+        seeds = new SplitMix64(sessionSeed);
+        random = new SplitMix64(0);
+        seed = seeds.split(random);
+        listeners = NO_LISTENERS;
+        pending = new ArrayDeque<>();
+        level = new Level(1, difficulty);
+        gameSequence = new PadSequence();
+        longuestSequence = new PadSequence();
+        lastSequence = new PadSequence();
+        chrono = new Chrono(timer, () -> {
+            if(!accept(Input.TIMEOUT, 0))
+                return; /* a late timeout */
+
+            fire(new ModelEvent.GameEnded(state, level.getLevel(), cursor, gameSequence.size()));
+        }, difficulty);
+    }
+
+    /**
+     * Init the model by clearing the color sequences generated by the game and played
+     * by the user. The level and chrono are also reinitialized and the state becomes GAME_NOT_STARTED. This input
+     * is legal in every state and cancels the player timer.
+     *
+     * @return true, the input being always applied.
+     */
+    public boolean init(){
+        accept(Input.INIT, 0);
+        chrono.cancel();
+        if(!gameSequence.isEmpty()) /* still referenced as the last or longuest sequence */
+            gameSequence = new PadSequence();
+        cursor = 0;
+        seed = seeds.split(random);
+        level.init(); 
+        chrono.init();
+        fire(new ModelEvent.Reset(level.getLevel(), seed));
+        return true;
+    }
+
+    /**
+     * Notifies the view(s) that the timer before the game starts has to be ran using the given
+     * controller action to be performed when the timer takes end. After calling this method, the
+     * action controller can be obtained by invoking {@link #getActionController()}. The current 
+     * state becomes GAME_STARTED_TIMER. This input is legal in the GAME_NOT_STARTED state only.
+     *
+     * @param action the action controller to be performed
+     * @return true if the input has been applied, false if it is illegal in the current state.
+     */
+    public boolean timer(Runnable action){
+        if(!accept(Input.COUNTDOWN, 0))
+            return false;
+
+        this.action = action;
+        fire(new ModelEvent.Countdown(level.getLevel(), action));
+        return true;
+    }
+
+    /**
+     * Notifies the view(s) that a new normal game has to be started. The current state becomes GAME_STARTED. This
+     * input is legal in the GAME_NOT_STARTED and GAME_STARTED_TIMER states only.
+     *
+     * @return true if the input has been applied, false if it is illegal in the current state.
+     */
+    public boolean start(){
+        if(!accept(Input.START, seed))
+            return false;
+
+        upgradeSequence();
+        lastSequence = gameSequence;
+        fireSequence();
+        return true;
+    }
+
+    /**
+     * Notifies the view(s) that the game sequence the user has to transcribed has been played. The current
+     * state becomes PLAYER_TURN. This input is legal in the GAME_STARTED and GAME_TURN states only.
+     *
+     * @return true if the input has been applied, false if it is illegal in the current state.
+     */
+    public boolean sequenceOver(){
+        if(!accept(Input.SEQUENCE_OVER, 0))
+            return false;
+
+        turnLimit = chrono.getTimeLimit();
+        chrono.start();
+        fire(new ModelEvent.PlayerTurn(level.getLevel(), gameSequence.size(), turnLimit));
+        return true;
+    }
+
+    /**
+     * Notifies the view(s) that the user succeeds the current level and can move to the next one. The current
+     * state becomes GAME_TURN. This input is legal in the NEXT_LEVEL state only.
+     *
+     * @return true if the input has been applied, false if it is illegal in the current state.
+     */
+    public boolean nextLevel(){
+        if(!accept(Input.NEXT_LEVEL, 0))
+            return false;
+
+        level.upgrade();
+        chrono.upgrade();
+        upgradeSequence();
+        lastSequence = gameSequence;
+        if(gameSequence.size() > longuestSequence.size())
+            longuestSequence = gameSequence;
+        fireSequence();
+        return true;
+    }
+
+    /**
+     * Notifies the view(s) that a new longuest game has to be started. A longuest game is represented by the
+     * longuest sequence the user was able to play. The current state becomes GAME_STARTED. This input is legal in
+     * the GAME_NOT_STARTED and GAME_STARTED_TIMER states only.
+     *
+     * @return true if the input has been applied, false if it is illegal in the current state.
+     */
+    public boolean longuest(){
+        if(!accept(Input.LONGUEST, seed))
+            return false;
+
+        if(longuestSequence.isEmpty()){
+            upgradeSequence();
+        } else{
+            setLevel(difficulty.getLevel(longuestSequence.size()));
+            gameSequence.addAll(longuestSequence);
+        }
+        fireSequence();
+        return true;
+    }
+
+    /**
+     * Notifies the view(s) that a new last game has to be started. A last game is represented by the last color sequence
+     * the user was trying to play. The current state becomes GAME_STARTED. This input is legal in the
+     * GAME_NOT_STARTED and GAME_STARTED_TIMER states only.
+     *
+     * @return true if the input has been applied, false if it is illegal in the current state.
+     */
+    public boolean last(){
+        if(!accept(Input.LAST, seed))
+            return false;
+
+        if(lastSequence.isEmpty()){
+            upgradeSequence();
+        } else{
+            setLevel(difficulty.getLevel(lastSequence.size()));
+            gameSequence.addAll(lastSequence);
+        }
+        fireSequence();
+        return true;
+    }
+
+    /**
+     * Notifies the view(s) that a click has occured on the color pad of the given id. The current state
+     * becomes NEXT_LEVEL if the user was able to properly transcribe the generated color sequence or becomes
+     * GAME_OVER if a misplay occured. This input is legal in the PLAYER_TURN state only, with a valid pad id.
+     *
+     * @param pad the id of the pad on which the click has occured
+     * @return true if the input has been applied, false if it is illegal in the current state or if the pad id is
+     * invalid.
+     */
+    public boolean click(int pad){
+        if(pad < 0 || pad >= PAD_COUNT || !accept(Input.CLICK, pad))
+            return false;
+
+        if(cursor < gameSequence.size() && gameSequence.get(cursor) == pad){
+            cursor++;
+            if(cursor == gameSequence.size()){
+                chrono.cancel();
+                transit(CLICK_LAST);
+                fire(new ModelEvent.LevelCompleted(level.getLevel()));
+            }
+        } else{
+            chrono.cancel();
+            transit(CLICK_WRONG);
+            fire(new ModelEvent.GameEnded(state, level.getLevel(), cursor, gameSequence.size()));
+        }
+        return true;
+    }
+
+    /**
+     * Plays the given pad presses in one pass, as a remote or simulated player submitting a whole attempt at once.
+     * The presses are checked against the sequence from the current cursor and applied up to the first mismatch,
+     * each one being recorded as a click, but the listeners are notified once per accepted batch, of the state
+     * where it stops: of the level completion if the presses end the sequence, of the game end if a press
+     * mismatches or comes too late, and of the progress of the player turn if the presses match without ending the
+     * sequence. A rejected batch notifies nothing.
+     *
+     * <p>The press times are optional. When given, they are the times of the presses in milliseconds since the
+     * start of the player turn, and the first press later than the time limit of the turn ends the game on a
+     * timeout, as the player timer would have.
+     *
+     * <p>The batch is rejected without changing anything if the state is not PLAYER_TURN, if there are more presses
+     * than pads left to play, if the times are shorter than the pads or decreasing, or if a pad id checked before
+     * the first mismatch is invalid.
+     *
+     * @param pads the ids of the pressed pads, in press order
+     * @param times the times of the presses, in milliseconds since the start of the player turn, or null
+     * @return the index of the first mismatching or late press (the state then being GAME_OVER or TIME_IS_OVER),
+     * {@link #BATCH_MATCHED} if all the presses matched or {@link #BATCH_REJECTED} if the batch has been rejected.
+     */
+    public int click(int[] pads, long[] times){
+        if(!accepts(Input.CLICK) || pads.length > gameSequence.size() - cursor
+                || (times != null && times.length < pads.length))
+            return BATCH_REJECTED;
+
+        int stop = pads.length;
+        boolean late = false;
+        long previous = 0;
+        for(int i = 0; i < pads.length; i++){ /* validation, nothing is changed until the batch is accepted */
+            if(pads[i] < 0 || pads[i] >= PAD_COUNT || (times != null && times[i] < previous))
+                return BATCH_REJECTED;
+
+            if(times != null){
+                previous = times[i];
+                if(times[i] > turnLimit){
+                    stop = i;
+                    late = true;
+                    break;
+                }
+            }
+
+            if(gameSequence.get(cursor + i) != pads[i]){
+                stop = i;
+                break;
+            }
+        }
+
+        for(int i = 0; i < stop; i++)
+            accept(Input.CLICK, pads[i]);
+        cursor += stop;
+        if(late){
+            chrono.cancel();
+            accept(Input.TIMEOUT, 0);
+            fire(new ModelEvent.GameEnded(state, level.getLevel(), cursor, gameSequence.size()));
+            return stop;
+        }
+
+        if(stop < pads.length){
+            click(pads[stop]); /* the mismatch ends the game */
+            return stop;
+        }
+
+        if(cursor == gameSequence.size()){
+            chrono.cancel();
+            transit(CLICK_LAST);
+            fire(new ModelEvent.LevelCompleted(level.getLevel()));
+        } else
+            fire(new ModelEvent.Progress(level.getLevel(), cursor, gameSequence.size()));
+
+        return BATCH_MATCHED;
+    }
+
+    /**
+     * Checks if the given input is legal in the current state, according to the transition table of the model.
+     * A click is checked regardless of the clicked pad.
+     *
+     * @param input the input to check
+     * @return true if the input would be applied, false if it would be rejected.
+     */
+    public boolean accepts(Input input){
+        return TRANSITIONS[row(state) + input.ordinal()] >= 0;
+    }
+
+    /**
+     * Subscribes the given listener. The listeners are kept in a copy-on-write array: this method can be called
+     * from any thread, even while a notification is running, in which case the listener is notified from the
+     * next change on.
+     *
+     * @param listener the listener to subscribe
+     */
+    @Override
+    public synchronized void subscribe(ObservableListener listener){
+        ObservableListener[] current = listeners;
+        ObservableListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Unsubscribes the given listener. This method can be called from any thread, even while a notification is
+     * running, in which case the listener may still receive the running notification.
+     *
+     * @param listener the listener to unsubscribe
+     */
+    @Override
+    public synchronized void unsubscribe(ObservableListener listener){
+        ObservableListener[] current = listeners;
+        for(int i = 0; i < current.length; i++){
+            if(current[i].equals(listener)){
+                ObservableListener[] updated = new ObservableListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                listeners = current.length == 1 ? NO_LISTENERS : updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners again of the last event fired by this model, which describes its current state.
+     *
+     * <p>A listener reacting to a notification by changing the state of this model (the view moving to the next
+     * level or ending the game for example) does not recurse into the listeners: the new event is queued and
+     * delivered once the running notification is over. The queued events are drained iteratively, in the order
+     * they were fired, so the stack depth stays bounded whatever the number of chained transitions. Each
+     * notification iterates over a snapshot of the listener array, the listeners subscribed when it starts, in
+     * subscription order, and does not allocate.
+     */
+    @Override
+    public void fireChange(){
+        if(event != null)
+            fire(event);
+    }
+
+    /**
+     * Gets a snapshot of the last generated color sequence. The snapshot is taken in constant time and is not
+     * affected by the following changes of the model.
+     *
+     * @throws IllegalStateException if the current state is GAME_NOT_STARTED.
+     * @return the last generated color sequence.
+     */
+    public PadSequence getSequence(){
+        if(state.equals(State.GAME_NOT_STARTED))
+            throw new IllegalStateException("Game not yet started");
+
+        return gameSequence.snapshot();
+    }
+
+    /**
+     * Gets a snapshot of the longuest sequence the user was able to play. The snapshot is taken in constant time.
+     *
+     * @return the longuest sequence, empty if no level has been completed yet.
+     */
+    public PadSequence getLonguestSequence(){
+        return longuestSequence.snapshot();
+    }
+
+    /**
+     * Sets the longuest sequence the user was able to play, restored from a previous session for example. The
+     * sequence is only kept if it is longer than the current longuest sequence.
+     *
+     * @param sequence the longuest sequence
+     */
+    public void setLonguestSequence(PadSequence sequence){
+        if(sequence.size() > longuestSequence.size())
+            longuestSequence = sequence.snapshot();
+    }
+
+    /**
+     * Gets the current chrono time to which the user is subjected.
+     *
+     * @return the current chrono time.
+     */
+    public int getTime(){
+        return chrono.getTime();
+    }
+
+    /**
+     * Gets the time limit of the player turn at the current level.
+     *
+     * @return the time limit in milliseconds.
+     */
+    public long getTimeLimit(){
+        return chrono.getTimeLimit();
+    }
+
+    /**
+     * Gets the difficulty table of this model.
+     *
+     * @return the difficulty table giving the length, time limit and tempo of each level.
+     */
+    public DifficultyTable getDifficulty(){
+        return difficulty;
+    }
+
+    /**
+     * Gets the current level the user is playing.
+     *
+     * @return the current level.
+     */
+    public int getLevel(){
+        return level.getLevel();
+    }
+
+    /**
+     * Gets the current state of this model.
+     *
+     * @return the current game state.
+     */
+    public State getState(){
+        return state;
+    }
+    
+    /**
+     * Gets the action controller previously set by calling the {@link #timer(Runnable)} method. This
+     * 'action' allows to invoke the right method after the timer before playing takes end.
+     *
+     * @return the action controller
+     */
+    public Runnable getActionController(){
+        return action;
+    }
+
+    /**
+     * Gets the seed from which the sequence of the current game is generated.
+     *
+     * @return the seed of the current game.
+     */
+    public long getSeed(){
+        return seed;
+    }
+
+    /**
+     * Sets the seed from which the sequence of the current game is generated. Starting a normal game after calling
+     * this method generates the same sequence as the game previously played with this seed. The seed can be set
+     * until the game starts, during the countdown included.
+     *
+     * @param seed the seed of the current game
+     * @throws IllegalStateException if the current game has already been started.
+     */
+    public void setSeed(long seed){
+        if(state != null && state != State.GAME_NOT_STARTED && state != State.GAME_STARTED_TIMER)
+            throw new IllegalStateException("Game already started");
+
+        this.seed = seed;
+        random.reseed(seed);
+    }
+
+    /**
+     * Takes a snapshot of the state of this model, made of the state, the level, the chrono time, the cursor, the
+     * seed of the current game, the states of the random generators and the game, last and longuest sequences.
+     * The listeners, the recorder and the action controller are not part of the snapshot.
+     *
+     * <p>The snapshot starts with the {@link #SNAPSHOT_VERSION} byte, followed by the state ordinal, a byte telling
+     * which sequences are shared, the level, the time limit (in milliseconds) and the cursor as ints, and the seed
+     * and generator states as longs (big-endian). Each distinct sequence then takes its length as an int followed by
+     * its pads packed 2 bits per pad (see {@link PadSequence#toWords()}). A game at level n takes
+     * 43 + 8 * ceil(n / 32) bytes when it is also the last and longuest one.
+     *
+     * <p>A running player timer cannot be saved: a model taken during the player turn is saved as it was before
+     * the turn, in GAME_TURN, so that the sequence is played again once restored. A model taken during the
+     * countdown before a game is saved in GAME_NOT_STARTED.
+     *
+     * @return the snapshot of this model.
+     */
+    public byte[] toSnapshot(){
+        State saved = state;
+        int savedCursor = cursor;
+        if(state == State.PLAYER_TURN){
+            saved = State.GAME_TURN;
+            savedCursor = 0;
+        } else if(state == State.GAME_STARTED_TIMER){
+            saved = State.GAME_NOT_STARTED;
+        }
+
+        int flags = (lastSequence == gameSequence ? SHARED_LAST : 0)
+            | (longuestSequence == gameSequence ? SHARED_LONGUEST : 0)
+            | (longuestSequence != gameSequence && longuestSequence == lastSequence ? SHARED_LONGUEST_LAST : 0);
+        int size = 39 + sequenceBytes(gameSequence)
+            + ((flags & SHARED_LAST) == 0 ? sequenceBytes(lastSequence) : 0)
+            + ((flags & (SHARED_LONGUEST | SHARED_LONGUEST_LAST)) == 0 ? sequenceBytes(longuestSequence) : 0);
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put((byte) SNAPSHOT_VERSION);
+        out.put((byte) (saved == null ? -1 : saved.ordinal()));
+        out.put((byte) flags);
+        out.putInt(level.getLevel()).putInt((int) chrono.getTimeLimit()).putInt(savedCursor);
+        out.putLong(seed).putLong(random.getState()).putLong(seeds.getState());
+        writeSequence(out, gameSequence);
+        if((flags & SHARED_LAST) == 0)
+            writeSequence(out, lastSequence);
+        if((flags & (SHARED_LONGUEST | SHARED_LONGUEST_LAST)) == 0)
+            writeSequence(out, longuestSequence);
+        return out.array();
+    }
+
+    /**
+     * Restores the state saved in the given snapshot (see {@link #toSnapshot()}) into this model. The player timer
+     * is cancelled and the listeners are notified of an event describing the restored state, as if the model had
+     * just moved to it. The listeners and the recorder of this model are kept; the restoration is not recorded.
+     *
+     * @param snapshot the snapshot to restore
+     * @throws IllegalArgumentException if the snapshot is truncated, of an unsupported version or corrupted, for
+     * instance holding unknown flags or a level not matching the length of its game sequence.
+     */
+    public void restore(byte[] snapshot){
+        ByteBuffer in = ByteBuffer.wrap(snapshot);
+        State restored;
+        int restoredLevel, time, restoredCursor, flags;
+        long restoredSeed, randomState, seedsState;
+        PadSequence game, last, longuest;
+        try{
+            int version = in.get();
+            if(version != SNAPSHOT_VERSION)
+                throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+
+            int ordinal = in.get();
+            if(ordinal < -1 || ordinal >= STATES.length)
+                throw new IllegalArgumentException("Invalid snapshot state: " + ordinal);
+
+            restored = ordinal < 0 ? null : STATES[ordinal];
+            flags = in.get();
+            if(!isValidFlags(flags))
+                throw new IllegalArgumentException("Invalid snapshot flags: " + flags);
+
+            restoredLevel = in.getInt();
+            time = in.getInt();
+            restoredCursor = in.getInt();
+            restoredSeed = in.getLong();
+            randomState = in.getLong();
+            seedsState = in.getLong();
+            game = readSequence(in);
+            last = (flags & SHARED_LAST) != 0 ? game : readSequence(in);
+            longuest = (flags & SHARED_LONGUEST) != 0 ? game
+                : (flags & SHARED_LONGUEST_LAST) != 0 ? last : readSequence(in);
+        } catch(BufferUnderflowException exc){
+            throw new IllegalArgumentException("Truncated snapshot");
+        }
+
+        if(!isValidLevel(restoredLevel, game.size()) || time < 1 || restoredCursor < 0
+                || restoredCursor > game.size())
+            throw new IllegalArgumentException("Corrupted snapshot");
+
+        chrono.cancel();
+        state = restored;
+        setLevel(restoredLevel);
+        chrono.setTimeLimit(time);
+        cursor = restoredCursor;
+        seed = restoredSeed;
+        random.reseed(restoredSeed);
+        random.setState(randomState);
+        seeds.setState(seedsState);
+        gameSequence = game;
+        lastSequence = last;
+        longuestSequence = longuest;
+        fireState();
+    }
+
+    /**
+     * Sets the recorder notified of each input of this model, before the input is applied. A recorder set between
+     * two games records everything needed to replay the following games (see {@link InputRecorder}).
+     *
+     * @param recorder the input recorder or null to stop recording
+     */
+    public void setRecorder(InputRecorder recorder){
+        this.recorder = recorder;
+    }
+
+    /**
+     * Generates a random number between the given start (inclusive) and end (exclusive) values using the
+     * generator of the current game.
+     *
+     * @param start the starting bound (inclusive)
+     * @param end the ending bound (exclusive)
+     *
+     * @return a random number between start (inclusive) and end (exclusive).
+     */
+    public int genRandom(int start, int end){ /* inc, exc */
+        return random.nextInt(start, end);
+    }
+
+    private static boolean isValidFlags(int flags){ /* known bits, the longuest sequence shared at most once */
+        return (flags & ~(SHARED_LAST | SHARED_LONGUEST | SHARED_LONGUEST_LAST)) == 0
+            && ((flags & SHARED_LONGUEST_LAST) == 0 || (flags & (SHARED_LAST | SHARED_LONGUEST)) == 0);
+    }
+
+    private boolean isValidLevel(int value, int length){ /* grown to the level or replayed at the level */
+        if(value < 1 || length == 0)
+            return value == 1;
+
+        return difficulty.getLength(value) == length || difficulty.getLevel(length) == value;
+    }
+
+    private void setLevel(int value){
+        level.setLevel(value);
+        chrono.setLevel(value);
+    }
+
+    private static int sequenceBytes(PadSequence sequence){
+        return Integer.BYTES + (sequence.size() + 31) / 32 * Long.BYTES;
+    }
+
+    private static void writeSequence(ByteBuffer out, PadSequence sequence){
+        out.putInt(sequence.size());
+        for(long word : sequence.toWords())
+            out.putLong(word);
+    }
+
+    private static PadSequence readSequence(ByteBuffer in){
+        int size = in.getInt();
+        if(size < 0 || (size + 31L) / 32 * Long.BYTES > in.remaining())
+            throw new IllegalArgumentException("Corrupted snapshot sequence: " + size);
+
+        long[] words = new long[(size + 31) / 32];
+        for(int i = 0; i < words.length; i++)
+            words[i] = in.getLong();
+        return PadSequence.fromWords(words, size);
+    }
+
+    private void fireState(){ /* the event a model moving to the current state fires */
+        if(state == null)
+            return;
+
+        switch(state){
+            case GAME_NOT_STARTED:
+                fire(new ModelEvent.Reset(level.getLevel(), seed));
+                break;
+            case NEXT_LEVEL:
+                fire(new ModelEvent.LevelCompleted(level.getLevel()));
+                break;
+            case GAME_OVER:
+            case TIME_IS_OVER:
+                fire(new ModelEvent.GameEnded(state, level.getLevel(), cursor, gameSequence.size()));
+                break;
+            default:
+                fireSequence();
+        }
+    }
+
+    private boolean accept(Input input, long arg){ /* records a legal input, then applies its transition */
+        int next = TRANSITIONS[row(state) + input.ordinal()];
+        if(next < 0)
+            return false;
+
+        if(recorder != null)
+            recorder.record(input, arg);
+        state = STATES[next];
+        return true;
+    }
+
+    private void transit(int outcome){ /* applies the transition of the outcome of an accepted input, not recorded */
+        int next = TRANSITIONS[row(state) + outcome];
+        if(next < 0)
+            throw new IllegalStateException("No transition from " + state + " on outcome " + outcome);
+
+        state = STATES[next];
+    }
+
+    private static int row(State state){
+        return (state == null ? UNINITIALIZED : state.ordinal()) * COLUMNS;
+    }
+
+    private static void allow(State from, Input input, State to){
+        allow(from, input.ordinal(), to);
+    }
+
+    private static void allow(State from, int column, State to){
+        TRANSITIONS[row(from) + column] = (byte) to.ordinal();
+    }
+
+    private void fire(ModelEvent event){ /* queues the event if a notification is running, drains the queue otherwise */
+        this.event = event;
+        pending.offer(event);
+        if(dispatching)
+            return;
+
+        dispatching = true;
+        try{
+            ModelEvent next;
+            while((next = pending.poll()) != null){
+                for(ObservableListener listener : listeners)
+                    listener.update(next);
+            }
+        } finally{
+            pending.clear();
+            dispatching = false;
+        }
+    }
+
+    private void fireSequence(){
+        fire(new ModelEvent.SequenceReady(state, level.getLevel(), gameSequence, chrono.getTimeLimit(),
+                difficulty.getTempo(level.getLevel())));
+    }
+
+    private void upgradeSequence(){ /* up to the length of the current level */
+        while(gameSequence.size() < level.getCount())
+            gameSequence.offer(genRandom(0, PAD_COUNT));
+        cursor = 0;
+    }
+}
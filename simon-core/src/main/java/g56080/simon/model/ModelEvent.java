@@ -0,0 +1,321 @@
+package g56080.simon.model;
+
+/**
+ * An immutable state-change event sent by the {@link Model} to its listeners. Each event carries the new state, the
+ * current level and exactly what changed with the transition, so that a listener never has to query the model back:
+ * events can be handled later, on another thread, logged or shipped without racing the model.
+ *
+ * <p>The concrete type of an event depends on its state:
+ * <ul>
+ *   <li>{@link Reset} for GAME_NOT_STARTED;</li>
+ *   <li>{@link Countdown} for GAME_STARTED_TIMER;</li>
+ *   <li>{@link SequenceReady} for GAME_STARTED and GAME_TURN;</li>
+ *   <li>{@link PlayerTurn} for PLAYER_TURN, or {@link Progress} after a batch of presses not ending the
+ *   sequence;</li>
+ *   <li>{@link LevelCompleted} for NEXT_LEVEL;</li>
+ *   <li>{@link GameEnded} for GAME_OVER and TIME_IS_OVER.</li>
+ * </ul>
+ */
+public abstract class ModelEvent{
+
+    private final Model.State state;
+    private final int level;
+
+    /**
+     * Creates a new ModelEvent using the given state and level.
+     *
+     * @param state the new state of the model
+     * @param level the current level of the model
+     */
+    protected ModelEvent(Model.State state, int level){
+        this.state = state;
+        this.level = level;
+    }
+
+    /**
+     * Gets the state the model has moved to.
+     *
+     * @return the new state of the model.
+     */
+    public Model.State getState(){
+        return state;
+    }
+
+    /**
+     * Gets the level of the model when this event occured.
+     *
+     * @return the current level.
+     */
+    public int getLevel(){
+        return level;
+    }
+
+    @Override
+    public String toString(){
+        return state + "[level=" + level + "]";
+    }
+
+    /**
+     * Event sent when the model is initialized and waits for a new game (GAME_NOT_STARTED state).
+     */
+    public static final class Reset extends ModelEvent{
+
+        private final long seed;
+
+        /**
+         * Creates a new Reset event using the given level and game seed.
+         *
+         * @param level the current level
+         * @param seed the seed of the next game
+         */
+        public Reset(int level, long seed){
+            super(Model.State.GAME_NOT_STARTED, level);
+            this.seed = seed;
+        }
+
+        /**
+         * Gets the seed from which the sequence of the next game is generated.
+         *
+         * @return the seed of the next game.
+         */
+        public long getSeed(){
+            return seed;
+        }
+    }
+
+    /**
+     * Event sent when the timer before the game starts has to be ran (GAME_STARTED_TIMER state).
+     */
+    public static final class Countdown extends ModelEvent{
+
+        private final Runnable action;
+
+        /**
+         * Creates a new Countdown event using the given level and controller action.
+         *
+         * @param level the current level
+         * @param action the action to be performed when the timer takes end
+         */
+        public Countdown(int level, Runnable action){
+            super(Model.State.GAME_STARTED_TIMER, level);
+            this.action = action;
+        }
+
+        /**
+         * Gets the action to be performed when the timer before the game takes end.
+         *
+         * @return the controller action.
+         */
+        public Runnable getAction(){
+            return action;
+        }
+    }
+
+    /**
+     * Event sent when a sequence has to be played to the user, at the start of a game (GAME_STARTED state) or of a
+     * new level (GAME_TURN state).
+     */
+    public static final class SequenceReady extends ModelEvent{
+
+        private final PadSequenceView sequence;
+        private final long timeLimit, tempo;
+
+        /**
+         * Creates a new SequenceReady event.
+         *
+         * @param state the new state, GAME_STARTED or GAME_TURN
+         * @param level the current level
+         * @param sequence the sequence to be played, of which the event keeps a snapshot
+         * @param timeLimit the time the user will have to play the sequence, in milliseconds
+         * @param tempo the period between two steps of the sequence playback, in milliseconds
+         * @throws IllegalArgumentException if the state is neither GAME_STARTED nor GAME_TURN.
+         */
+        public SequenceReady(Model.State state, int level, PadSequence sequence, long timeLimit, long tempo){
+            super(state, level);
+            if(state != Model.State.GAME_STARTED && state != Model.State.GAME_TURN)
+                throw new IllegalArgumentException("Invalid state: " + state);
+
+            this.sequence = new PadSequenceView(sequence.snapshot());
+            this.timeLimit = timeLimit;
+            this.tempo = tempo;
+        }
+
+        /**
+         * Gets the sequence to be played. The sequence is a read-only snapshot, not affected by the following
+         * changes of the model.
+         *
+         * @return the sequence to be played.
+         */
+        public PadSequenceView getSequence(){
+            return sequence;
+        }
+
+        /**
+         * Gets the pad appended last to the sequence, the new step of the level.
+         *
+         * @return the last pad id of the sequence or -1 if it is empty.
+         */
+        public int getStep(){
+            return sequence.isEmpty() ? -1 : sequence.get(sequence.size() - 1);
+        }
+
+        /**
+         * Gets the time the user will have to play the sequence once it has been played.
+         *
+         * @return the time limit in milliseconds.
+         */
+        public long getTimeLimit(){
+            return timeLimit;
+        }
+
+        /**
+         * Gets the tempo at which the sequence is played at this level, given by the difficulty table.
+         *
+         * @return the period between two steps, in milliseconds.
+         */
+        public long getTempo(){
+            return tempo;
+        }
+    }
+
+    /**
+     * Event sent when the user has to play the sequence and the player timer is running (PLAYER_TURN state).
+     */
+    public static final class PlayerTurn extends ModelEvent{
+
+        private final int length;
+        private final long timeLimit;
+
+        /**
+         * Creates a new PlayerTurn event.
+         *
+         * @param level the current level
+         * @param length the number of pads the user has to play
+         * @param timeLimit the delay of the player timer, in milliseconds
+         */
+        public PlayerTurn(int level, int length, long timeLimit){
+            super(Model.State.PLAYER_TURN, level);
+            this.length = length;
+            this.timeLimit = timeLimit;
+        }
+
+        /**
+         * Gets the number of pads the user has to play.
+         *
+         * @return the length of the sequence.
+         */
+        public int getLength(){
+            return length;
+        }
+
+        /**
+         * Gets the delay after which the player timer takes end, counted from this event.
+         *
+         * @return the time limit in milliseconds.
+         */
+        public long getTimeLimit(){
+            return timeLimit;
+        }
+    }
+
+    /**
+     * Event sent when a batch of presses matched the sequence without ending it, the player turn going on
+     * (PLAYER_TURN state). See {@link Model#click(int[], long[])}.
+     */
+    public static final class Progress extends ModelEvent{
+
+        private final int played, length;
+
+        /**
+         * Creates a new Progress event.
+         *
+         * @param level the current level
+         * @param played the number of pads played so far
+         * @param length the number of pads of the sequence
+         */
+        public Progress(int level, int played, int length){
+            super(Model.State.PLAYER_TURN, level);
+            this.played = played;
+            this.length = length;
+        }
+
+        /**
+         * Gets the number of pads properly played so far.
+         *
+         * @return the number of played pads.
+         */
+        public int getPlayed(){
+            return played;
+        }
+
+        /**
+         * Gets the number of pads of the sequence.
+         *
+         * @return the length of the sequence.
+         */
+        public int getLength(){
+            return length;
+        }
+    }
+
+    /**
+     * Event sent when the user has properly played the whole sequence (NEXT_LEVEL state).
+     */
+    public static final class LevelCompleted extends ModelEvent{
+
+        /**
+         * Creates a new LevelCompleted event for the given completed level.
+         *
+         * @param level the completed level
+         */
+        public LevelCompleted(int level){
+            super(Model.State.NEXT_LEVEL, level);
+        }
+    }
+
+    /**
+     * Event sent when the game takes end, after a misplay (GAME_OVER state) or because the player timer ran out
+     * (TIME_IS_OVER state).
+     */
+    public static final class GameEnded extends ModelEvent{
+
+        private final int played, length;
+
+        /**
+         * Creates a new GameEnded event.
+         *
+         * @param state the new state, GAME_OVER or TIME_IS_OVER
+         * @param level the level reached
+         * @param played the number of pads properly played during the last level
+         * @param length the number of pads of the sequence of the last level
+         * @throws IllegalArgumentException if the state is neither GAME_OVER nor TIME_IS_OVER.
+         */
+        public GameEnded(Model.State state, int level, int played, int length){
+            super(state, level);
+            if(state != Model.State.GAME_OVER && state != Model.State.TIME_IS_OVER)
+                throw new IllegalArgumentException("Invalid state: " + state);
+
+            this.played = played;
+            this.length = length;
+        }
+
+        /**
+         * Gets the number of pads properly played during the last level, which is also the index of the
+         * misplayed pad for a GAME_OVER.
+         *
+         * @return the number of pads played.
+         */
+        public int getPlayed(){
+            return played;
+        }
+
+        /**
+         * Gets the number of pads of the sequence of the last level.
+         *
+         * @return the length of the sequence.
+         */
+        public int getLength(){
+            return length;
+        }
+    }
+}
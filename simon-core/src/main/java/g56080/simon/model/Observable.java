@@ -1,7 +1,5 @@
 package g56080.simon.model;
 
-import g56080.simon.view.ObservableListener;
-
 /**
  * Observer interface implemented by the application model. An observer is designed to observe 
  * changes in the view by receiving notifications from it and to react to these changes.
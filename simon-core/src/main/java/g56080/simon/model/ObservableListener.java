@@ -0,0 +1,16 @@
+package g56080.simon.model;
+
+/**
+ * The observable interface implemented by the application view(s).
+ */
+@FunctionalInterface
+public interface ObservableListener{
+
+    /**
+     * Updates this observable entity depending on the given model event. The event is immutable and carries
+     * everything that changed with the transition, so it can be handled without querying the model back.
+     *
+     * @param event the model event describing the new state
+     */
+    void update(ModelEvent event);
+}
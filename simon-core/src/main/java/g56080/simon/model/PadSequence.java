@@ -0,0 +1,234 @@
+package g56080.simon.model;
+
+import java.util.Arrays;
+
+/**
+ * A first-in first-out sequence of pad ids packing each pad on 2 bits (32 pads per long word). Pads are
+ * appended at the tail and consumed from the head in constant time, the words holding consumed pads being
+ * reclaimed when the sequence grows.
+ *
+ * <p>A sequence can be snapshotted in constant time by calling {@link #snapshot()}: the snapshot shares the
+ * packed words of this sequence instead of copying them. The words of a snapshot are never overwritten, the
+ * sequence that would overwrite them copies its live pads first (copy-on-write).
+ */
+public class PadSequence{
+
+    private final static int BITS = 2, PADS_PER_WORD = Long.SIZE / BITS, MASK = (1 << BITS) - 1;
+    private final static int DEFAULT_CAPACITY = 1; /* words */
+
+    private long[] words;
+    private int head, tail; /* absolute pad positions in words */
+    private int frozen; /* positions below this one are shared with a snapshot */
+
+    /**
+     * Creates a new empty PadSequence.
+     */
+    public PadSequence(){
+        words = new long[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Creates a new PadSequence holding the given pad ids, in order.
+     *
+     * @param pads the pad ids
+     * @throws IllegalArgumentException if a pad id is not between 0 (inclusive) and {@link Model#PAD_COUNT} (exclusive)
+     */
+    public PadSequence(int... pads){
+        words = new long[Math.max(DEFAULT_CAPACITY, wordCount(pads.length))];
+        for(int pad : pads)
+            offer(pad);
+    }
+
+    private PadSequence(long[] words, int head, int tail){
+        this.words = words;
+        this.head = head;
+        this.tail = tail;
+        frozen = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the number of pads in this sequence.
+     *
+     * @return the size of this sequence.
+     */
+    public int size(){
+        return tail - head;
+    }
+
+    /**
+     * Checks if this sequence holds no pad.
+     *
+     * @return true if this sequence is empty, false otherwise.
+     */
+    public boolean isEmpty(){
+        return head == tail;
+    }
+
+    /**
+     * Gets the pad at the given zero-based index, starting from the head of this sequence.
+     *
+     * @param index the pad index
+     * @return the pad id at the given index.
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the size of this sequence.
+     */
+    public int get(int index){
+        if(index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+
+        return read(head + index);
+    }
+
+    /**
+     * Gets the pad at the head of this sequence without removing it.
+     *
+     * @return the pad id at the head of this sequence or -1 if it is empty.
+     */
+    public int peek(){
+        return isEmpty() ? -1 : read(head);
+    }
+
+    /**
+     * Removes the pad at the head of this sequence and returns it.
+     *
+     * @return the removed pad id or -1 if this sequence is empty.
+     */
+    public int poll(){
+        return isEmpty() ? -1 : read(head++);
+    }
+
+    /**
+     * Appends the given pad at the tail of this sequence.
+     *
+     * @param pad the pad id to append
+     * @throws IllegalArgumentException if the pad id is not between 0 (inclusive) and {@link Model#PAD_COUNT}
+     * (exclusive)
+     */
+    public void offer(int pad){
+        if(pad < 0 || pad >= Model.PAD_COUNT)
+            throw new IllegalArgumentException("Invalid pad: " + pad);
+
+        if(isShared() || tail / PADS_PER_WORD >= words.length)
+            reallocate(2 * wordCount(size() + 1));
+
+        int word = tail / PADS_PER_WORD, shift = (tail % PADS_PER_WORD) * BITS;
+        words[word] = (words[word] & ~((long) MASK << shift)) | ((long) pad << shift);
+        tail++;
+    }
+
+    /**
+     * Appends all the pads of the given sequence, in order, at the tail of this sequence.
+     *
+     * @param other the sequence whose pads are appended
+     */
+    public void addAll(PadSequence other){
+        int size = other.size();
+        for(int i = 0; i < size; i++)
+            offer(other.read(other.head + i));
+    }
+
+    /**
+     * Clears this sequence by removing all its pads.
+     */
+    public void clear(){
+        if(frozen > 0)
+            words = new long[DEFAULT_CAPACITY];
+        head = tail = frozen = 0;
+    }
+
+    /**
+     * Gets an immutable-in-content snapshot of the current pads of this sequence in constant time. The snapshot
+     * shares the packed words of this sequence: appending to this sequence afterwards never changes the pads seen
+     * by the snapshot, and appending to the snapshot makes it copy its own pads first.
+     *
+     * @return a snapshot of this sequence.
+     */
+    public PadSequence snapshot(){
+        frozen = Math.max(frozen, tail);
+        return new PadSequence(words, head, tail);
+    }
+
+    /**
+     * Gets the pads of this sequence, from head to tail, packed in words: the pad at index i is held by the word
+     * <code>i / 32</code>, on the 2 bits starting at bit <code>(i % 32) * 2</code>. The unused bits of the last word
+     * are 0. This is the format read by {@link #fromWords(long[], int)}.
+     *
+     * @return the packed words of this sequence.
+     */
+    public long[] toWords(){
+        int size = size();
+        long[] packed;
+        if(head % PADS_PER_WORD == 0){
+            packed = Arrays.copyOfRange(words, head / PADS_PER_WORD, head / PADS_PER_WORD + wordCount(size));
+        } else{
+            packed = new long[wordCount(size)];
+            for(int i = 0; i < size; i++)
+                packed[i / PADS_PER_WORD] |= (long) read(head + i) << ((i % PADS_PER_WORD) * BITS);
+        }
+
+        if(size % PADS_PER_WORD != 0)
+            packed[packed.length - 1] &= (1L << ((size % PADS_PER_WORD) * BITS)) - 1;
+        return packed;
+    }
+
+    /**
+     * Creates a new PadSequence holding the given number of pads read from the given packed words, in the format
+     * of {@link #toWords()}. The words are copied.
+     *
+     * @param words the packed words
+     * @param size the number of pads
+     * @return the sequence holding the packed pads.
+     * @throws IllegalArgumentException if the size is negative or the words hold less pads than the given size.
+     */
+    public static PadSequence fromWords(long[] words, int size){
+        if(size < 0 || wordCount(size) > words.length)
+            throw new IllegalArgumentException("Invalid size: " + size);
+
+        PadSequence sequence = new PadSequence();
+        sequence.words = Arrays.copyOf(words, Math.max(DEFAULT_CAPACITY, wordCount(size)));
+        sequence.tail = size;
+        return sequence;
+    }
+
+    /**
+     * Gets the pads of this sequence, from head to tail, as an array of pad ids.
+     *
+     * @return the pad ids of this sequence.
+     */
+    public int[] toArray(){
+        int[] pads = new int[size()];
+        for(int i = 0; i < pads.length; i++)
+            pads[i] = read(head + i);
+
+        return pads;
+    }
+
+    @Override
+    public String toString(){
+        return Arrays.toString(toArray());
+    }
+
+
+    private boolean isShared(){
+        return tail < frozen;
+    }
+
+    private int read(int position){
+        return (int) (words[position / PADS_PER_WORD] >>> ((position % PADS_PER_WORD) * BITS)) & MASK;
+    }
+
+    private void reallocate(int capacity){ /* moves the live pads to a fresh array, dropping the consumed words */
+        int offset = (head / PADS_PER_WORD) * PADS_PER_WORD;
+        int used = wordCount(tail) - offset / PADS_PER_WORD;
+        long[] fresh = new long[Math.max(capacity, used + 1)];
+        System.arraycopy(words, offset / PADS_PER_WORD, fresh, 0, used);
+
+        words = fresh;
+        head -= offset;
+        tail -= offset;
+        frozen = 0;
+    }
+
+    private static int wordCount(int pads){
+        return (pads + PADS_PER_WORD - 1) / PADS_PER_WORD;
+    }
+}
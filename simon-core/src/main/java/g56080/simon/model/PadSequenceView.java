@@ -0,0 +1,67 @@
+package g56080.simon.model;
+
+/**
+ * A read-only view of a {@link PadSequence} snapshot, carried by the {@link ModelEvent}s. The view only exposes
+ * the reading methods of the sequence, so that a listener cannot consume or change the pads seen by the following
+ * listeners, whatever their thread.
+ */
+public final class PadSequenceView{
+
+    private final PadSequence sequence;
+
+    PadSequenceView(PadSequence snapshot){
+        sequence = snapshot;
+    }
+
+    /**
+     * Gets the number of pads in this sequence.
+     *
+     * @return the size of this sequence.
+     */
+    public int size(){
+        return sequence.size();
+    }
+
+    /**
+     * Checks if this sequence holds no pad.
+     *
+     * @return true if this sequence is empty, false otherwise.
+     */
+    public boolean isEmpty(){
+        return sequence.isEmpty();
+    }
+
+    /**
+     * Gets the pad at the given zero-based index.
+     *
+     * @param index the pad index
+     * @return the pad id at the given index.
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the size of this sequence.
+     */
+    public int get(int index){
+        return sequence.get(index);
+    }
+
+    /**
+     * Gets the pads of this sequence packed in words (see {@link PadSequence#toWords()}).
+     *
+     * @return the packed words of this sequence.
+     */
+    public long[] toWords(){
+        return sequence.toWords();
+    }
+
+    /**
+     * Gets the pads of this sequence, in order, as an array of pad ids.
+     *
+     * @return the pad ids of this sequence.
+     */
+    public int[] toArray(){
+        return sequence.toArray();
+    }
+
+    @Override
+    public String toString(){
+        return sequence.toString();
+    }
+}
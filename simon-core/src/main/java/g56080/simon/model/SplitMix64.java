@@ -0,0 +1,83 @@
+package g56080.simon.model;
+
+/**
+ * The SplitMix64 generator of a {@link Model}, drawing the same values as a {@link java.util.SplittableRandom}
+ * created with the same seed. A generator can be split: the generator of each game is split off the generator of
+ * its session, taking the next value of the session as its seed and a gamma derived from that seed, as
+ * {@link java.util.SplittableRandom#split()} derives the gamma of its children. Each game then draws its own
+ * stream, and its generator is fully given by its seed. Unlike the SplittableRandom, the state of a generator is
+ * one long which can be read and set, so the generators of a model are saved in its snapshots (see
+ * {@link Model#toSnapshot()}).
+ */
+final class SplitMix64{
+
+    private final static long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state, gamma;
+
+    SplitMix64(long seed){
+        state = seed;
+        gamma = GOLDEN_GAMMA;
+    }
+
+    long split(SplitMix64 child){ /* reseeds the given generator as a child of this one, returns its seed */
+        long seed = nextLong();
+        child.reseed(seed);
+        return seed;
+    }
+
+    void reseed(long seed){ /* the child split off with the given seed */
+        state = seed;
+        gamma = mixGamma(seed);
+    }
+
+    long getState(){
+        return state;
+    }
+
+    void setState(long state){
+        this.state = state;
+    }
+
+    long nextLong(){
+        return mix64(state += gamma);
+    }
+
+    int nextInt(int origin, int bound){ /* inc, exc, as SplittableRandom.nextInt(int, int) */
+        if(origin >= bound)
+            throw new IllegalArgumentException("bound must be greater than origin");
+
+        int r = mix32(state += gamma);
+        int n = bound - origin, m = n - 1;
+        if((n & m) == 0)
+            return (r & m) + origin;
+
+        if(n > 0){
+            for(int u = r >>> 1; u + m - (r = u % n) < 0; u = mix32(state += gamma) >>> 1)
+                ;
+            return r + origin;
+        }
+
+        while(r < origin || r >= bound) /* the range overflows an int */
+            r = mix32(state += gamma);
+        return r;
+    }
+
+    private static long mix64(long z){
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mixGamma(long z){ /* odd, with enough bit transitions, as SplittableRandom */
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        return Long.bitCount(z ^ (z >>> 1)) < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    private static int mix32(long z){
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+}
@@ -0,0 +1,159 @@
+package g56080.simon.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timing wheel driving any number of {@link WheelChronoTimer}s from a single ticker thread, with a
+ * resolution of one millisecond. The wheel is an array of buckets, one per tick modulo the wheel size; each bucket
+ * is an intrusive doubly-linked list of the timers whose deadline falls on it. Starting or cancelling a timer links
+ * or unlinks it in constant time, without allocating, and each tick only visits one bucket. This makes the cost of
+ * a deadline constant whatever the number of running timers, which a ScheduledExecutorService (a binary heap) does
+ * not provide.
+ *
+ * <p>A wheel is meant to serve the timers of one owner executor: its lock is then only taken by that executor and
+ * the ticker, so the owners of a host, each with its own wheel, never contend on a timer.
+ *
+ * <p>The ticker thread is a daemon thread parked while no timer is running. The expired tasks are handed to the
+ * owner executor of their timer, so the ticker never runs model code; a hand-off failing, for instance rejected by
+ * an executor shut down, is reported to the uncaught exception handler of the ticker, which keeps ticking.
+ */
+public class TimingWheel implements AutoCloseable{
+
+    private final static int WHEEL_SIZE = 1024; /* ticks, a power of two */
+    private final static long TICK = 1_000_000L; /* nanoseconds */
+
+    private final WheelChronoTimer[] buckets;
+    private final long origin; /* nanoseconds */
+    private final List<WheelChronoTimer> expired; /* ticker thread only */
+    private final Thread ticker;
+    private long tick; /* last processed tick */
+    private int count; /* running timers */
+    private volatile boolean closed;
+
+    /**
+     * Creates a new TimingWheel and starts its ticker thread.
+     */
+    public TimingWheel(){
+        buckets = new WheelChronoTimer[WHEEL_SIZE];
+        origin = System.nanoTime();
+        expired = new ArrayList<>();
+        ticker = new Thread(this::run, "simon-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Gets the number of timers currently running on this wheel.
+     *
+     * @return the running timer count.
+     */
+    public synchronized int getCount(){
+        return count;
+    }
+
+    /**
+     * Stops the ticker thread of this wheel. The running timers never take end.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        LockSupport.unpark(ticker);
+    }
+
+    synchronized void schedule(WheelChronoTimer timer, long delay, Runnable task){
+        unlink(timer);
+        timer.generation++;
+        timer.task = task;
+
+        long now = currentTick();
+        if(count == 0)
+            tick = now; /* the ticker has been idle, nothing to catch up */
+
+        timer.deadline = now + Math.max(0, delay) + 1; /* never early, at most one tick late */
+        int bucket = (int) (timer.deadline & (WHEEL_SIZE - 1));
+        timer.next = buckets[bucket];
+        if(timer.next != null)
+            timer.next.prev = timer;
+        buckets[bucket] = timer;
+        timer.linked = true;
+        if(count++ == 0)
+            LockSupport.unpark(ticker);
+    }
+
+    synchronized void cancel(WheelChronoTimer timer){
+        unlink(timer);
+        timer.generation++;
+        timer.task = null;
+    }
+
+    synchronized Runnable claim(WheelChronoTimer timer){ /* on the owner, null if cancelled or restarted */
+        if(timer.generation != timer.expired)
+            return null;
+
+        Runnable task = timer.task;
+        timer.generation++;
+        timer.task = null;
+        return task;
+    }
+
+    private void run(){
+        while(!closed){
+            boolean idle;
+            synchronized(this){
+                long now = currentTick();
+                while(count > 0 && tick < now)
+                    expire(buckets[(int) (++tick & (WHEEL_SIZE - 1))]);
+                tick = now;
+                idle = count == 0;
+            }
+
+            for(WheelChronoTimer timer : expired){
+                try{
+                    timer.handOff();
+                } catch(RuntimeException exc){ /* an owner rejecting its task does not stop the other timers */
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(ticker, exc);
+                }
+            }
+            expired.clear();
+
+            if(idle)
+                LockSupport.park(this);
+            else
+                LockSupport.parkNanos(this, origin + (tick + 1) * TICK - System.nanoTime());
+        }
+    }
+
+    private void expire(WheelChronoTimer timer){ /* under the lock, collects the due timers of a bucket */
+        while(timer != null){
+            WheelChronoTimer next = timer.next;
+            if(timer.deadline <= tick){
+                unlink(timer);
+                timer.expired = timer.generation;
+                expired.add(timer);
+            }
+            timer = next;
+        }
+    }
+
+    private void unlink(WheelChronoTimer timer){
+        if(!timer.linked)
+            return;
+
+        if(timer.prev != null)
+            timer.prev.next = timer.next;
+        else
+            buckets[(int) (timer.deadline & (WHEEL_SIZE - 1))] = timer.next;
+        if(timer.next != null)
+            timer.next.prev = timer.prev;
+
+        timer.prev = timer.next = null;
+        timer.linked = false;
+        count--;
+    }
+
+    private long currentTick(){
+        return (System.nanoTime() - origin) / TICK;
+    }
+}
@@ -0,0 +1,118 @@
+package g56080.simon.model;
+
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * A GameClock on simulated time. The time of a virtual clock only moves when it is advanced, and advancing it runs
+ * the due tasks immediately, in time order, on the calling thread: a whole game lifecycle, sequence playback and
+ * player timeouts included, runs in microseconds whatever its duration on the wall clock. This makes it the clock
+ * of the tests and simulations.
+ *
+ * <p>A virtual clock is not thread-safe: it is owned by the thread driving the model.
+ */
+public class VirtualClock implements GameClock{
+
+    private final Queue<Task> tasks;
+    private long now; /* milliseconds */
+    private long sequence; /* scheduling order of the tasks due on the same time */
+
+    /**
+     * Creates a new VirtualClock whose time starts at 0.
+     */
+    public VirtualClock(){
+        tasks = new PriorityQueue<>();
+    }
+
+    @Override
+    public long millis(){
+        return now;
+    }
+
+    @Override
+    public Scheduled schedule(long delay, Runnable task){
+        Task scheduled = new Task(now + Math.max(0, delay), sequence++, task);
+        tasks.offer(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Advances the time of this clock by the given delay, running each task due meanwhile at its own time. The
+     * tasks scheduled by a running task are run as well if they are due before the end of the delay.
+     *
+     * @param delay the delay in milliseconds
+     * @throws IllegalArgumentException if the delay is negative.
+     */
+    public void advance(long delay){
+        if(delay < 0)
+            throw new IllegalArgumentException("Invalid delay: " + delay);
+
+        long target = now + delay;
+        Task next;
+        while((next = tasks.peek()) != null && next.time <= target){
+            tasks.poll();
+            now = next.time;
+            if(!next.cancelled)
+                next.task.run();
+        }
+
+        now = target;
+    }
+
+    /**
+     * Advances the time of this clock to the next due task and runs all the tasks due on that time.
+     *
+     * @return true if a task was due, false if no task is scheduled on this clock.
+     */
+    public boolean runNext(){
+        Task next;
+        while((next = tasks.peek()) != null && next.cancelled)
+            tasks.poll();
+
+        if(next == null)
+            return false;
+
+        advance(next.time - now);
+        return true;
+    }
+
+    /**
+     * Runs the tasks of this clock, advancing its time, until no task is scheduled anymore.
+     */
+    public void runAll(){
+        while(runNext());
+    }
+
+    /**
+     * Gets the number of tasks scheduled on this clock, cancelled tasks not yet discarded included.
+     *
+     * @return the pending task count.
+     */
+    public int getPendingCount(){
+        return tasks.size();
+    }
+
+    private static class Task implements Scheduled, Comparable<Task>{
+
+        private final long time, order;
+        private final Runnable task;
+        private boolean cancelled;
+
+        private Task(long time, long order, Runnable task){
+            this.time = time;
+            this.order = order;
+            this.task = task;
+        }
+
+        @Override
+        public void cancel(){
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(Task other){
+            int res = Long.compare(time, other.time);
+            return res != 0 ? res : Long.compare(order, other.order);
+        }
+    }
+}
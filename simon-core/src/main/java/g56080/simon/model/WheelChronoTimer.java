@@ -0,0 +1,57 @@
+package g56080.simon.model;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A ChronoTimer scheduled on a {@link TimingWheel}. Starting and cancelling the timer are constant-time
+ * operations that do not allocate, nor does its expiry, so a backend can run tens of thousands of player timers on a
+ * single ticker thread. When the delay has elapsed, the task is handed to the owner executor, the one running the
+ * inputs of the model the timer belongs to; a task handed over after the timer has been cancelled or restarted is
+ * dropped by the owner.
+ */
+public class WheelChronoTimer implements ChronoTimer{
+
+    private final TimingWheel wheel;
+    private final Executor owner;
+    private final Runnable fire; /* the hand-off run by the owner, one per timer */
+
+    /* wheel state, guarded by the wheel */
+    WheelChronoTimer prev, next;
+    boolean linked;
+    long deadline; /* tick */
+    long generation; /* incremented on each start, cancel and run */
+    long expired; /* generation of the last expiry */
+    Runnable task;
+
+    /**
+     * Creates a new WheelChronoTimer scheduled on the given wheel and running its task on the given owner executor.
+     *
+     * @param wheel the timing wheel on which the timer is scheduled
+     * @param owner the executor on which the task is run
+     */
+    public WheelChronoTimer(TimingWheel wheel, Executor owner){
+        this.wheel = wheel;
+        this.owner = owner;
+        fire = this::fire;
+    }
+
+    @Override
+    public void start(long delay, Runnable task){
+        wheel.schedule(this, delay, task);
+    }
+
+    @Override
+    public void cancel(){
+        wheel.cancel(this);
+    }
+
+    void handOff(){ /* on the ticker, once expired */
+        owner.execute(fire);
+    }
+
+    private void fire(){ /* on the owner, drops an expiry followed by a cancel or restart */
+        Runnable task = wheel.claim(this);
+        if(task != null)
+            task.run();
+    }
+}
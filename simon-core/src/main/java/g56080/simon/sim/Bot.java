@@ -0,0 +1,129 @@
+package g56080.simon.sim;
+
+import java.util.SplittableRandom;
+
+import g56080.simon.model.Model;
+
+/**
+ * An immutable bot player profile used by the {@link Simulator}. A bot remembers the first pads of a sequence up to
+ * its memory span and guesses the following ones, presses a wrong pad with a given error rate, and takes a reaction
+ * time drawn from a normal distribution before each press.
+ */
+public class Bot{
+
+    /**
+     * The memory span of a bot with perfect memory.
+     */
+    public final static int PERFECT_MEMORY = Integer.MAX_VALUE;
+
+    private final int memory;
+    private final double errorRate;
+    private final long reactionMean, reactionDeviation; /* milliseconds */
+
+    /**
+     * Creates a new Bot using the given profile.
+     *
+     * @param memory the number of pads of a sequence the bot remembers, {@link #PERFECT_MEMORY} to remember them all
+     * @param errorRate the probability of pressing a wrong pad although it is remembered
+     * @param reactionMean the mean reaction time before each press, in milliseconds
+     * @param reactionDeviation the standard deviation of the reaction time, in milliseconds
+     * @throws IllegalArgumentException if the memory is negative, the error rate is not between 0 and 1 or a
+     * reaction time is negative.
+     */
+    public Bot(int memory, double errorRate, long reactionMean, long reactionDeviation){
+        if(memory < 0)
+            throw new IllegalArgumentException("Invalid memory: " + memory);
+        if(errorRate < 0 || errorRate > 1)
+            throw new IllegalArgumentException("Invalid error rate: " + errorRate);
+        if(reactionMean < 0 || reactionDeviation < 0)
+            throw new IllegalArgumentException("Invalid reaction time");
+
+        this.memory = memory;
+        this.errorRate = errorRate;
+        this.reactionMean = reactionMean;
+        this.reactionDeviation = reactionDeviation;
+    }
+
+    /**
+     * Creates a perfect bot, which never forgets nor misplays a pad and reacts instantly.
+     *
+     * @return a perfect bot.
+     */
+    public static Bot perfect(){
+        return new Bot(PERFECT_MEMORY, 0., 0, 0);
+    }
+
+    /**
+     * Chooses the pad the bot presses at the given index of a sequence.
+     *
+     * @param expected the pad expected at the given index
+     * @param index the zero-based index in the sequence
+     * @param random the random generator of the simulation
+     * @return the id of the pressed pad.
+     */
+    public int press(int expected, int index, SplittableRandom random){
+        if(index >= memory)
+            return random.nextInt(Model.PAD_COUNT);
+        if(errorRate > 0 && random.nextDouble() < errorRate)
+            return (expected + 1 + random.nextInt(Model.PAD_COUNT - 1)) % Model.PAD_COUNT;
+
+        return expected;
+    }
+
+    /**
+     * Draws the reaction time of the bot before a press.
+     *
+     * @param random the random generator of the simulation
+     * @return the reaction time in milliseconds, never negative.
+     */
+    public long react(SplittableRandom random){
+        if(reactionDeviation == 0)
+            return reactionMean;
+
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+            * Math.cos(2 * Math.PI * random.nextDouble());
+        return Math.max(0, Math.round(reactionMean + gaussian * reactionDeviation));
+    }
+
+    /**
+     * Gets the number of pads of a sequence this bot remembers.
+     *
+     * @return the memory span.
+     */
+    public int getMemory(){
+        return memory;
+    }
+
+    /**
+     * Gets the probability of this bot to press a wrong pad although it is remembered.
+     *
+     * @return the error rate.
+     */
+    public double getErrorRate(){
+        return errorRate;
+    }
+
+    /**
+     * Gets the mean reaction time of this bot.
+     *
+     * @return the mean reaction time in milliseconds.
+     */
+    public long getReactionMean(){
+        return reactionMean;
+    }
+
+    /**
+     * Gets the standard deviation of the reaction time of this bot.
+     *
+     * @return the reaction time deviation in milliseconds.
+     */
+    public long getReactionDeviation(){
+        return reactionDeviation;
+    }
+
+    @Override
+    public String toString(){
+        return String.format("Bot[memory=%s, errorRate=%.3f, reaction=%d+/-%dms]",
+                memory == PERFECT_MEMORY ? "perfect" : memory, errorRate, reactionMean, reactionDeviation);
+    }
+}
@@ -0,0 +1,158 @@
+package g56080.simon.sim;
+
+/**
+ * The figures of a simulation run by the {@link Simulator}: the number of games played and their throughput, the
+ * distribution of the levels reached, and the latency of the {@link g56080.simon.model.Model#click(int)} and
+ * {@link g56080.simon.model.Model#nextLevel()} calls. A report is filled by one worker and merged with the reports of
+ * the other workers once they are over.
+ */
+public class SimulationReport{
+
+    private final long[] levels; /* games per level reached, the last entry gathers the capped games */
+    private long games, timeouts, elapsed; /* nanoseconds */
+    private long clicks, clickTime, clickMax;
+    private long levelUps, levelUpTime, levelUpMax;
+
+    SimulationReport(int maxLevel){
+        levels = new long[maxLevel + 1];
+    }
+
+    void recordGame(int level, boolean timeout){
+        levels[Math.min(level, levels.length - 1)]++;
+        games++;
+        if(timeout)
+            timeouts++;
+    }
+
+    void recordClick(long nanos){
+        clicks++;
+        clickTime += nanos;
+        clickMax = Math.max(clickMax, nanos);
+    }
+
+    void recordLevelUp(long nanos){
+        levelUps++;
+        levelUpTime += nanos;
+        levelUpMax = Math.max(levelUpMax, nanos);
+    }
+
+    void merge(SimulationReport other){
+        for(int i = 0; i < levels.length; i++)
+            levels[i] += other.levels[i];
+        games += other.games;
+        timeouts += other.timeouts;
+        clicks += other.clicks;
+        clickTime += other.clickTime;
+        clickMax = Math.max(clickMax, other.clickMax);
+        levelUps += other.levelUps;
+        levelUpTime += other.levelUpTime;
+        levelUpMax = Math.max(levelUpMax, other.levelUpMax);
+    }
+
+    void setElapsed(long nanos){
+        elapsed = nanos;
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return the game count.
+     */
+    public long getGames(){
+        return games;
+    }
+
+    /**
+     * Gets the number of games lost on a player timeout.
+     *
+     * @return the timeout count.
+     */
+    public long getTimeouts(){
+        return timeouts;
+    }
+
+    /**
+     * Gets the number of games played per second of wall-clock time.
+     *
+     * @return the game throughput.
+     */
+    public double getGamesPerSecond(){
+        return elapsed == 0 ? 0. : games * 1e9 / elapsed;
+    }
+
+    /**
+     * Gets the number of games that ended at the given level. The games stopped at the maximum level of the
+     * simulation are counted on that level.
+     *
+     * @param level the level
+     * @return the number of games ended at the given level.
+     */
+    public long getGames(int level){
+        return level < 0 || level >= levels.length ? 0 : levels[level];
+    }
+
+    /**
+     * Gets the mean level reached by the games.
+     *
+     * @return the mean level.
+     */
+    public double getMeanLevel(){
+        long sum = 0;
+        for(int i = 0; i < levels.length; i++)
+            sum += i * levels[i];
+
+        return games == 0 ? 0. : (double) sum / games;
+    }
+
+    /**
+     * Gets the mean latency of a click.
+     *
+     * @return the mean click latency in nanoseconds.
+     */
+    public double getClickMean(){
+        return clicks == 0 ? 0. : (double) clickTime / clicks;
+    }
+
+    /**
+     * Gets the maximum latency of a click.
+     *
+     * @return the maximum click latency in nanoseconds.
+     */
+    public long getClickMax(){
+        return clickMax;
+    }
+
+    /**
+     * Gets the mean latency of a level-up.
+     *
+     * @return the mean level-up latency in nanoseconds.
+     */
+    public double getLevelUpMean(){
+        return levelUps == 0 ? 0. : (double) levelUpTime / levelUps;
+    }
+
+    /**
+     * Gets the maximum latency of a level-up.
+     *
+     * @return the maximum level-up latency in nanoseconds.
+     */
+    public long getLevelUpMax(){
+        return levelUpMax;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("games       %d in %.3fs (%.0f games/s), %d timeouts%n",
+                    games, elapsed / 1e9, getGamesPerSecond(), timeouts));
+        res.append(String.format("click       %d, mean %.1fns, max %dns%n", clicks, getClickMean(), clickMax));
+        res.append(String.format("nextLevel   %d, mean %.1fns, max %dns%n", levelUps, getLevelUpMean(), levelUpMax));
+        res.append(String.format("level       mean %.2f%n", getMeanLevel()));
+        for(int i = 0; i < levels.length; i++){
+            if(levels[i] > 0)
+                res.append(String.format("  %5d%s %d%n", i, i == levels.length - 1 ? "+" : " ", levels[i]));
+        }
+
+        return res.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package g56080.simon.sim;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import g56080.simon.model.ClockChronoTimer;
+import g56080.simon.model.Model;
+import g56080.simon.model.PadSequence;
+import g56080.simon.model.VirtualClock;
+
+/**
+ * A headless load simulator playing Simon games against the {@link Model} at maximum speed. Each game is played by
+ * a {@link Bot} through the entry points used by the controller (start, sequenceOver, click, nextLevel, init) on a
+ * {@link VirtualClock}: the reaction times of the bot elapse instantly but still make it lose on a player timeout.
+ * The games are split over a ForkJoinPool, each worker owning its model, its clock and a random generator split
+ * from the simulation seed, so a simulation is reproducible from its seed whatever the number of threads.
+ */
+public class Simulator{
+
+    private final static int BATCH = 256; /* games played by a worker without splitting */
+
+    private final Bot bot;
+    private final int maxLevel;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new Simulator for the given bot on the common ForkJoinPool.
+     *
+     * @param bot the bot playing the games
+     * @param maxLevel the level at which a game is stopped, for the bots that would never lose
+     * @throws IllegalArgumentException if the maximum level is less than 1.
+     */
+    public Simulator(Bot bot, int maxLevel){
+        this(bot, maxLevel, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new Simulator for the given bot on the given pool.
+     *
+     * @param bot the bot playing the games
+     * @param maxLevel the level at which a game is stopped, for the bots that would never lose
+     * @param pool the pool running the games
+     * @throws IllegalArgumentException if the maximum level is less than 1.
+     */
+    public Simulator(Bot bot, int maxLevel, ForkJoinPool pool){
+        if(maxLevel < 1)
+            throw new IllegalArgumentException("Invalid level: " + maxLevel);
+
+        this.bot = bot;
+        this.maxLevel = maxLevel;
+        this.pool = pool;
+    }
+
+    /**
+     * Plays the given number of games and reports on them.
+     *
+     * @param games the number of games to play
+     * @param seed the seed of the simulation
+     * @return the report of the simulation.
+     */
+    public SimulationReport run(long games, long seed){
+        long start = System.nanoTime();
+        SimulationReport report = pool.invoke(new Batch(games, new SplittableRandom(seed)));
+        report.setElapsed(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * Runs a simulation from the command line and prints its report. The arguments are, in order and all
+     * optional: the number of games (1000000), the error rate of the bot (0.01), its memory span (perfect), its mean
+     * reaction time (300ms), its reaction time deviation (100ms) and the maximum level (100).
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args){
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        double errorRate = args.length > 1 ? Double.parseDouble(args[1]) : 0.01;
+        int memory = args.length > 2 ? Integer.parseInt(args[2]) : Bot.PERFECT_MEMORY;
+        long reactionMean = args.length > 3 ? Long.parseLong(args[3]) : 300;
+        long reactionDeviation = args.length > 4 ? Long.parseLong(args[4]) : 100;
+        int maxLevel = args.length > 5 ? Integer.parseInt(args[5]) : 100;
+
+        Bot bot = new Bot(memory, errorRate, reactionMean, reactionDeviation);
+        System.out.println(bot);
+        System.out.print(new Simulator(bot, maxLevel).run(games, System.nanoTime()));
+    }
+
+    private void play(Model model, VirtualClock clock, SplittableRandom random, SimulationReport report){
+        model.init();
+        model.start();
+        while(true){
+            model.sequenceOver();
+            PadSequence sequence = model.getSequence();
+            for(int i = 0; i < sequence.size() && model.getState() == Model.State.PLAYER_TURN; i++){
+                clock.advance(bot.react(random));
+                if(model.getState() != Model.State.PLAYER_TURN) /* timeout */
+                    break;
+
+                int pad = bot.press(sequence.get(i), i, random);
+                long start = System.nanoTime();
+                model.click(pad);
+                report.recordClick(System.nanoTime() - start);
+            }
+
+            if(model.getState() != Model.State.NEXT_LEVEL || model.getLevel() >= maxLevel)
+                break;
+
+            long start = System.nanoTime();
+            model.nextLevel();
+            report.recordLevelUp(System.nanoTime() - start);
+        }
+
+        report.recordGame(model.getLevel(), model.getState() == Model.State.TIME_IS_OVER);
+        clock.runAll(); /* discards the cancelled player timers */
+    }
+
+    private class Batch extends RecursiveTask<SimulationReport>{
+
+        private final static long serialVersionUID = 1L;
+
+        private final long games;
+        private final SplittableRandom random;
+
+        private Batch(long games, SplittableRandom random){
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationReport compute(){
+            if(games <= BATCH){
+                SimulationReport report = new SimulationReport(maxLevel);
+                VirtualClock clock = new VirtualClock();
+                Model model = new Model(new ClockChronoTimer(clock), random.nextLong());
+                for(long i = 0; i < games; i++)
+                    play(model, clock, random, report);
+
+                return report;
+            }
+
+            Batch left = new Batch(games / 2, random.split());
+            Batch right = new Batch(games - games / 2, random);
+            left.fork();
+            SimulationReport report = right.compute();
+            report.merge(left.join());
+            return report;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package g56080.simon.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import g56080.simon.model.PadSequence;
+
+/**
+ * A persistent store of the best sequence played by each player, backed by a memory-mapped file. The store is made
+ * of fixed-size records and of an open-addressing index mapping the 64-bit key of a player (see
+ * {@link #playerKey(String)}) to its record, so that a player is found in constant time whatever the number of
+ * stored players, and its best level is read straight from the mapped pages, without parsing anything.
+ *
+ * <p>The file is laid out as follows:
+ * <ul>
+ *   <li>a 64-byte header holding the {@link #MAGIC} number, the {@link #VERSION}, the capacity of the store, the
+ *   size of the index and the number of stored players;</li>
+ *   <li>the index, an array of 16-byte entries (player key, record number + 1) probed linearly;</li>
+ *   <li>the records, aligned on a page and mapped lazily by chunks. Each record is made of two 512-byte slots,
+ *   each one holding a write sequence number, the player key, the best level, the stored sequence length, a CRC-32C
+ *   checksum and the sequence packed 2 bits per pad (see {@link PadSequence#toWords()}).</li>
+ * </ul>
+ *
+ * <p>Writes are crash-safe: a record update is written to its inactive slot and forced to the disk before becoming
+ * the active one, the slot holding the valid checksum and the highest sequence number being the active one. A new
+ * player is written to its record, then to the index and finally counted in the header, each step being forced to
+ * the disk before the next one, so that a crash leaves at worst an index entry to an uncounted record, which is
+ * ignored and reused.
+ *
+ * <p>A slot holds up to {@link #MAX_PADS} pads: the pads of a longer sequence are truncated, while its level is
+ * kept.
+ */
+public class ScoreStore implements AutoCloseable{
+
+    /**
+     * The magic number starting a store ("SMNS").
+     */
+    public final static int MAGIC = 0x534D4E53;
+
+    /**
+     * The version of the store format.
+     */
+    public final static int VERSION = 1;
+
+    /**
+     * The maximum number of pads stored per player.
+     */
+    public final static int MAX_PADS = 60 * 32;
+
+    private final static int HEADER_SIZE = 64, ENTRY_SIZE = 16, SLOT_SIZE = 512, RECORD_SIZE = 2 * SLOT_SIZE;
+    private final static int PAGE_SIZE = 4096, CHUNK_RECORDS = 4096; /* 4 MiB per chunk */
+    private final static int MAX_CAPACITY = 1 << 25;
+
+    /* header offsets */
+    private final static int H_MAGIC = 0, H_VERSION = 4, H_CAPACITY = 8, H_INDEX_SIZE = 12, H_COUNT = 16;
+
+    /* slot offsets */
+    private final static int S_SEQ = 0, S_KEY = 8, S_LEVEL = 16, S_LENGTH = 20, S_CRC = 24, S_WORDS = 32;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer meta; /* header and index */
+    private final MappedByteBuffer[] chunks; /* records, mapped on first access */
+    private final CRC32C crc;
+    private final int capacity, mask; /* index size - 1 */
+    private final long recordsOffset;
+    private int count;
+
+    private ScoreStore(FileChannel channel, FileLock lock, int capacity, int indexSize, boolean created)
+            throws IOException{
+        this.channel = channel;
+        this.lock = lock;
+        this.capacity = capacity;
+        mask = indexSize - 1;
+        long metaSize = HEADER_SIZE + (long) indexSize * ENTRY_SIZE;
+        recordsOffset = (metaSize + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+        meta = channel.map(FileChannel.MapMode.READ_WRITE, 0, metaSize);
+        chunks = new MappedByteBuffer[(capacity + CHUNK_RECORDS - 1) / CHUNK_RECORDS];
+        crc = new CRC32C();
+        if(created){
+            meta.putInt(H_CAPACITY, capacity);
+            meta.putInt(H_INDEX_SIZE, indexSize);
+            meta.putInt(H_VERSION, VERSION);
+            meta.force();
+            meta.putInt(H_MAGIC, MAGIC); /* last, a store without magic is created again */
+            meta.force();
+        }
+
+        count = meta.getInt(H_COUNT);
+    }
+
+    /**
+     * Opens the store held by the given file, creating it if it does not exist yet. The capacity of an existing
+     * store is the one it has been created with. The file is locked until the store is closed.
+     *
+     * @param file the file of the store
+     * @param capacity the maximum number of players held by the store, if created
+     * @return the opened store.
+     * @throws IOException if the file cannot be opened or is not a store.
+     * @throws IllegalArgumentException if the capacity is not between 1 and 2^25.
+     */
+    public static ScoreStore open(Path file, int capacity) throws IOException{
+        if(capacity < 1 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try{
+            FileLock lock = channel.tryLock();
+            if(lock == null)
+                throw new IOException("Store already opened: " + file);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while(header.hasRemaining() && channel.read(header, header.position()) >= 0)
+                ; /* a new or partially created file reads as zeros */
+            if(header.getInt(H_MAGIC) != MAGIC){
+                if(header.getInt(H_MAGIC) != 0)
+                    throw new IOException("Not a score store: " + file);
+
+                channel.truncate(0);
+                return new ScoreStore(channel, lock, capacity, indexSize(capacity), true);
+            }
+
+            if(header.getInt(H_VERSION) != VERSION)
+                throw new IOException("Unsupported store version: " + header.getInt(H_VERSION));
+
+            int storedCapacity = header.getInt(H_CAPACITY), indexSize = header.getInt(H_INDEX_SIZE);
+            if(storedCapacity < 1 || storedCapacity > MAX_CAPACITY || indexSize != indexSize(storedCapacity))
+                throw new IOException("Corrupted store header: " + file);
+
+            return new ScoreStore(channel, lock, storedCapacity, indexSize, false);
+        } catch(IOException | RuntimeException exc){
+            channel.close();
+            throw exc;
+        }
+    }
+
+    /**
+     * Gets the 64-bit key of the player having the given name (FNV-1a hash of its characters).
+     *
+     * @param name the name of the player
+     * @return the key of the player.
+     */
+    public static long playerKey(String name){
+        long hash = 0xcbf29ce484222325L;
+        for(int i = 0; i < name.length(); i++){
+            hash ^= name.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Gets the best level reached by the given player, read from the mapped record without copying it.
+     *
+     * @param player the key of the player
+     * @return the best level of the player, 0 if the player is unknown.
+     */
+    public synchronized int getLevel(long player){
+        int record = find(player);
+        if(record < 0)
+            return 0;
+
+        ByteBuffer chunk = chunk(record);
+        return chunk.getInt(activeSlot(chunk, slotOffset(record, 0), player) + S_LEVEL);
+    }
+
+    /**
+     * Gets the best sequence played by the given player.
+     *
+     * @param player the key of the player
+     * @return the best sequence of the player, empty if the player is unknown.
+     */
+    public synchronized PadSequence getSequence(long player){
+        int record = find(player);
+        if(record < 0)
+            return new PadSequence();
+
+        ByteBuffer chunk = chunk(record);
+        int slot = activeSlot(chunk, slotOffset(record, 0), player);
+        int length = chunk.getInt(slot + S_LENGTH);
+        long[] words = new long[wordCount(length)];
+        for(int i = 0; i < words.length; i++)
+            words[i] = chunk.getLong(slot + S_WORDS + i * Long.BYTES);
+
+        return PadSequence.fromWords(words, length);
+    }
+
+    /**
+     * Stores the given sequence as the best sequence of the given player, unless the player already has a sequence
+     * at least as long. The record is forced to the disk before returning.
+     *
+     * @param player the key of the player
+     * @param sequence the sequence played by the player
+     * @return true if the sequence has been stored, false otherwise.
+     * @throws IllegalStateException if the player is unknown and the store is full.
+     * @throws UncheckedIOException if the record of the player cannot be mapped.
+     */
+    public synchronized boolean update(long player, PadSequence sequence){
+        int level = sequence.size();
+        int record = find(player);
+        if(record >= 0){
+            ByteBuffer chunk = chunk(record);
+            int active = activeSlot(chunk, slotOffset(record, 0), player);
+            if(chunk.getInt(active + S_LEVEL) >= level)
+                return false;
+
+            int other = active == slotOffset(record, 0) ? slotOffset(record, 1) : slotOffset(record, 0);
+            writeSlot(chunk, other, chunk.getLong(active + S_SEQ) + 1, player, level, sequence);
+            return true;
+        }
+
+        if(count == capacity)
+            throw new IllegalStateException("Store full: " + capacity + " players");
+
+        record = count;
+        ByteBuffer chunk = chunk(record);
+        chunk.putLong(slotOffset(record, 1) + S_SEQ, 0); /* a reused record is made of one valid slot */
+        chunk.putInt(slotOffset(record, 1) + S_CRC, 0);
+        writeSlot(chunk, slotOffset(record, 0), 1, player, level, sequence);
+
+        int entry = probe(player);
+        meta.putInt(entry + 8, record + 1);
+        meta.putLong(entry, player);
+        meta.force(entry, ENTRY_SIZE);
+        meta.putInt(H_COUNT, ++count);
+        meta.force(0, HEADER_SIZE);
+        return true;
+    }
+
+    /**
+     * Gets the number of players held by this store.
+     *
+     * @return the player count.
+     */
+    public synchronized int size(){
+        return count;
+    }
+
+    /**
+     * Gets the maximum number of players held by this store.
+     *
+     * @return the capacity of this store.
+     */
+    public int getCapacity(){
+        return capacity;
+    }
+
+    /**
+     * Forces the pending writes and closes the file of this store.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException{
+        if(!channel.isOpen())
+            return;
+
+        meta.force();
+        for(MappedByteBuffer chunk : chunks)
+            if(chunk != null)
+                chunk.force();
+        lock.release();
+        channel.close();
+    }
+
+    private int find(long player){ /* record number or -1 */
+        for(int entry = entryOffset(mix(player)); ; entry = nextEntry(entry)){
+            int ref = meta.getInt(entry + 8);
+            if(ref == 0)
+                return -1;
+
+            if(meta.getLong(entry) == player && isOwned(ref - 1, player))
+                return ref - 1;
+        }
+    }
+
+    private int probe(long player){ /* the entry to which a new player is indexed */
+        for(int entry = entryOffset(mix(player)); ; entry = nextEntry(entry)){
+            int ref = meta.getInt(entry + 8);
+            if(ref == 0 || (meta.getLong(entry) == player && !isOwned(ref - 1, player)))
+                return entry; /* empty, or left by a crash before the record was counted */
+        }
+    }
+
+    private boolean isOwned(int record, long player){
+        if(record >= count)
+            return false;
+
+        ByteBuffer chunk = chunk(record);
+        return activeSlot(chunk, slotOffset(record, 0), player) >= 0;
+    }
+
+    private int activeSlot(ByteBuffer chunk, int first, long player){ /* offset of the valid slot or -1 */
+        int second = first + SLOT_SIZE;
+        boolean firstValid = isValid(chunk, first, player), secondValid = isValid(chunk, second, player);
+        if(firstValid && secondValid)
+            return chunk.getLong(first + S_SEQ) >= chunk.getLong(second + S_SEQ) ? first : second;
+
+        return firstValid ? first : secondValid ? second : -1;
+    }
+
+    private boolean isValid(ByteBuffer chunk, int slot, long player){
+        int length = chunk.getInt(slot + S_LENGTH);
+        return chunk.getLong(slot + S_SEQ) > 0 && chunk.getLong(slot + S_KEY) == player
+            && length >= 0 && length <= MAX_PADS && chunk.getInt(slot + S_CRC) == checksum(chunk, slot, length);
+    }
+
+    private void writeSlot(ByteBuffer chunk, int slot, long seq, long player, int level, PadSequence sequence){
+        int length = Math.min(level, MAX_PADS);
+        long[] words = sequence.toWords(); /* MAX_PADS fills whole words, truncating drops the last ones */
+        chunk.putLong(slot + S_SEQ, seq);
+        chunk.putLong(slot + S_KEY, player);
+        chunk.putInt(slot + S_LEVEL, level);
+        chunk.putInt(slot + S_LENGTH, length);
+        for(int i = 0; i < wordCount(length); i++)
+            chunk.putLong(slot + S_WORDS + i * Long.BYTES, words[i]);
+        chunk.putInt(slot + S_CRC, checksum(chunk, slot, length));
+        ((MappedByteBuffer) chunk).force(slot, SLOT_SIZE);
+    }
+
+    private int checksum(ByteBuffer chunk, int slot, int length){ /* over the fields and the used words */
+        crc.reset();
+        crc.update(chunk.duplicate().limit(slot + S_CRC).position(slot));
+        crc.update(chunk.duplicate().limit(slot + S_WORDS + wordCount(length) * Long.BYTES).position(slot + S_WORDS));
+        return (int) crc.getValue();
+    }
+
+    private ByteBuffer chunk(int record){
+        int index = record / CHUNK_RECORDS;
+        if(chunks[index] == null){
+            try{
+                chunks[index] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        recordsOffset + (long) index * CHUNK_RECORDS * RECORD_SIZE, (long) CHUNK_RECORDS * RECORD_SIZE);
+            } catch(IOException exc){
+                throw new UncheckedIOException(exc);
+            }
+        }
+
+        return chunks[index];
+    }
+
+    private static int slotOffset(int record, int slot){ /* within its chunk */
+        return (record % CHUNK_RECORDS) * RECORD_SIZE + slot * SLOT_SIZE;
+    }
+
+    private int entryOffset(long hash){
+        return HEADER_SIZE + (int) (hash & mask) * ENTRY_SIZE;
+    }
+
+    private int nextEntry(int entry){
+        return entryOffset((entry - HEADER_SIZE) / ENTRY_SIZE + 1);
+    }
+
+    private static int indexSize(int capacity){ /* a power of two, at least twice the capacity */
+        return Integer.highestOneBit(Math.max(1, capacity - 1)) << 2;
+    }
+
+    private static int wordCount(int length){
+        return (length + 31) / 32;
+    }
+
+    private static long mix(long key){ /* SplitMix64 finalizer, spreads the keys over the index */
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
@@ -0,0 +1,123 @@
+package g56080.simon.engine;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import g56080.simon.model.Model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SessionEngineTest{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void spilledSessionsAreRestored() throws Exception{
+        try(SessionEngine engine = new SessionEngine(2, spillPath(), 10)){
+            List<Session> sessions = new ArrayList<>();
+            List<int[]> sequences = new ArrayList<>();
+            for(int i = 0; i < 200; i++){
+                Session session = engine.create();
+                session.execute(Model::start);
+                sessions.add(session);
+                sequences.add(session.call(model -> model.getSequence().toArray()).get());
+            }
+
+            assertTrue(engine.getSpillCount() > 0);
+            assertTrue(engine.getResidentCount() <= 10);
+            for(int i = 0; i < sessions.size(); i++){
+                assertArrayEquals(sequences.get(i), sessions.get(i).call(model -> model.getSequence().toArray()).get());
+                assertEquals(Model.State.GAME_STARTED, sessions.get(i).call(Model::getState).get());
+            }
+        }
+    }
+
+    @Test
+    public void busySessionsStayResidentWithoutSpilling() throws Exception{
+        try(SessionEngine engine = new SessionEngine(1, spillPath(), 2)){
+            List<Session> sessions = new ArrayList<>();
+            for(int i = 0; i < 5; i++){
+                Session session = engine.create();
+                session.execute(Model::start);
+                session.execute(Model::sequenceOver);
+                sessions.add(session);
+                assertEquals(Model.State.PLAYER_TURN, session.call(Model::getState).get());
+            }
+            Session countdown = engine.create();
+            countdown.execute(model -> model.timer(model::start));
+            assertEquals(Model.State.GAME_STARTED_TIMER, countdown.call(Model::getState).get());
+            sessions.add(countdown);
+
+            Session idle = engine.create(); /* beyond the bound, only the idle sessions can be spilled */
+            assertEquals(Model.State.GAME_NOT_STARTED, idle.call(Model::getState).get());
+            long spills = engine.getSpillCount();
+            for(Session session : sessions){
+                assertTrue(session.call(Model::getState).get() != Model.State.GAME_NOT_STARTED);
+                assertTrue(session.resident);
+            }
+            countdown.execute(model -> model.getActionController().run());
+            assertEquals(Model.State.GAME_STARTED, countdown.call(Model::getState).get());
+            assertEquals(spills, engine.getSpillCount());
+            assertTrue(engine.getResidentCount() > 2);
+        }
+    }
+
+    @Test
+    public void releasedSlotsAreReused() throws Exception{
+        try(SessionEngine engine = new SessionEngine(1, spillPath(), 1)){
+            List<Session> sessions = createIdle(engine, 10);
+            long size = engine.getSpillFile().size();
+            assertTrue(size > 0);
+
+            for(Session session : sessions)
+                engine.evict(session.getId());
+            createIdle(engine, 10);
+            assertEquals(size, engine.getSpillFile().size());
+        }
+    }
+
+    @Test
+    public void failingInputsEvictTheirSession() throws Exception{
+        try(SessionEngine engine = new SessionEngine(1)){
+            CompletableFuture<Session> failed = new CompletableFuture<>();
+            engine.setFailureHandler((session, exc) -> failed.complete(session));
+            Session session = engine.create();
+            session.execute(model -> {
+                throw new IllegalStateException("broken input");
+            });
+
+            assertSame(session, failed.get(1, TimeUnit.MINUTES));
+            assertTrue(session.isEvicted());
+            assertEquals("broken input", session.getFailure().get().getMessage());
+            assertEquals(2, session.getInputCount());
+            assertEquals(1, engine.getFailureCount());
+            assertEquals(0, engine.getSessionCount());
+        }
+    }
+
+    private List<Session> createIdle(SessionEngine engine, int count) throws Exception{
+        List<Session> sessions = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            Session session = engine.create();
+            session.call(Model::getState).get(); /* the previous sessions have been spilled */
+            sessions.add(session);
+        }
+
+        return sessions;
+    }
+
+    private Path spillPath(){
+        return folder.getRoot().toPath().resolve("sessions.spill");
+    }
+}
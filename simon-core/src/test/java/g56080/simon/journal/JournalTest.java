@@ -0,0 +1,133 @@
+package g56080.simon.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import g56080.simon.model.ClockChronoTimer;
+import g56080.simon.model.Model;
+import g56080.simon.model.PadSequence;
+import g56080.simon.model.VirtualClock;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JournalTest{
+
+    @Test
+    public void recordsAreReadBackInOrder() throws IOException{
+        long[] now = {1000};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(JournalWriter writer = new JournalWriter(out, () -> now[0])){
+            writer.record(Model.Input.INIT, 0);
+            now[0] += 250;
+            writer.record(Model.Input.START, -42L);
+            now[0] += 100_000;
+            writer.record(Model.Input.CLICK, 3);
+            writer.record(Model.Input.TIMEOUT, 0);
+        }
+
+        try(JournalReader reader = new JournalReader(new ByteArrayInputStream(out.toByteArray()))){
+            assertRecord(reader, Model.Input.INIT, 0, 0);
+            assertRecord(reader, Model.Input.START, 250, -42L);
+            assertRecord(reader, Model.Input.CLICK, 100_250, 3);
+            assertRecord(reader, Model.Input.TIMEOUT, 100_250, 0);
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void foreignStreamIsRejected() throws IOException{
+        new JournalReader(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    public void replayReproducesRecordedGames() throws IOException{
+        VirtualClock clock = new VirtualClock();
+        Model model = new Model(new ClockChronoTimer(clock), 7L);
+        List<String> recorded = new ArrayList<>();
+        model.subscribe(event -> recorded.add(event.toString()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(JournalWriter writer = new JournalWriter(out, clock::millis)){
+            model.setRecorder(writer);
+            model.init();
+            model.start();
+            playLevels(model, clock, 3);
+            clock.advance(model.getTimeLimit()); /* timeout */
+            assertEquals(Model.State.TIME_IS_OVER, model.getState());
+
+            model.init();
+            model.last();
+            playLevels(model, clock, 1);
+            model.click((model.getSequence().get(0) + 1) % Model.PAD_COUNT); /* misplay */
+            assertEquals(Model.State.GAME_OVER, model.getState());
+        }
+
+        JournalReplayer replayer = new JournalReplayer();
+        List<String> replayed = new ArrayList<>();
+        replayer.subscribe(event -> replayed.add(event.toString()));
+        try(JournalReader reader = new JournalReader(new ByteArrayInputStream(out.toByteArray()))){
+            replayer.replay(reader);
+        }
+
+        assertEquals(recorded, replayed);
+        assertEquals(model.getState(), replayer.getModel().getState());
+        assertEquals(model.getLevel(), replayer.getModel().getLevel());
+        assertArrayEquals(model.getSequence().toArray(), replayer.getModel().getSequence().toArray());
+    }
+
+    @Test
+    public void replayReproducesGamesStartedAfterCountdown() throws IOException{
+        VirtualClock clock = new VirtualClock();
+        Model model = new Model(new ClockChronoTimer(clock), 11L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(JournalWriter writer = new JournalWriter(out, clock::millis)){
+            model.setRecorder(writer);
+            model.init();
+            assertTrue(model.timer(model::start));
+            clock.advance(5000); /* the countdown of the view */
+            model.getActionController().run();
+            playLevels(model, clock, 2);
+            assertTrue(model.click(model.getSequence().get(0)));
+        }
+
+        JournalReplayer replayer = new JournalReplayer();
+        try(JournalReader reader = new JournalReader(new ByteArrayInputStream(out.toByteArray()))){
+            replayer.replay(reader);
+        }
+
+        assertEquals(Model.State.PLAYER_TURN, replayer.getModel().getState());
+        assertEquals(model.getSeed(), replayer.getModel().getSeed());
+        assertEquals(model.getLevel(), replayer.getModel().getLevel());
+        assertArrayEquals(model.getSequence().toArray(), replayer.getModel().getSequence().toArray());
+    }
+
+    static void playLevels(Model model, VirtualClock clock, int levels){ /* plays the given levels without error */
+        for(int i = 0; i < levels; i++){
+            assertTrue(model.sequenceOver());
+            PadSequence sequence = model.getSequence();
+            for(int j = 0; j < sequence.size(); j++){
+                clock.advance(300);
+                assertTrue(model.click(sequence.get(j)));
+            }
+
+            assertEquals(Model.State.NEXT_LEVEL, model.getState());
+            assertTrue(model.nextLevel());
+        }
+        assertTrue(model.sequenceOver());
+    }
+
+    private static void assertRecord(JournalReader reader, Model.Input input, long time, long arg)
+            throws IOException{
+        assertTrue(reader.next());
+        assertEquals(input, reader.getInput());
+        assertEquals(time, reader.getTime());
+        assertEquals(arg, reader.getArg());
+    }
+}
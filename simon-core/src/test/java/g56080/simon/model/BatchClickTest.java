@@ -0,0 +1,100 @@
+package g56080.simon.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchClickTest{
+
+    private Model model;
+    private int[] sequence;
+    private List<ModelEvent> events;
+    private List<Model.Input> recorded;
+
+    @Before
+    public void setUp(){
+        model = new Model(new ClockChronoTimer(new VirtualClock()), 4L);
+        model.init();
+        model.start();
+        for(int i = 0; i < 4; i++){
+            model.sequenceOver();
+            for(int pad : model.getSequence().toArray())
+                model.click(pad);
+            model.nextLevel();
+        }
+        assertTrue(model.sequenceOver());
+        sequence = model.getSequence().toArray();
+
+        events = new ArrayList<>();
+        model.subscribe(events::add);
+        recorded = new ArrayList<>();
+        model.setRecorder((input, arg) -> recorded.add(input));
+    }
+
+    @Test
+    public void eachBatchIsSummarizedByOneEvent(){
+        assertEquals(Model.BATCH_MATCHED, model.click(Arrays.copyOf(sequence, 2), null));
+        assertEquals(Model.State.PLAYER_TURN, model.getState());
+        assertEquals(1, events.size());
+        assertEquals(2, ((ModelEvent.Progress) events.get(0)).getPlayed());
+        assertEquals(List.of(Model.Input.CLICK, Model.Input.CLICK), recorded);
+
+        assertEquals(Model.BATCH_MATCHED, model.click(Arrays.copyOfRange(sequence, 2, sequence.length), null));
+        assertEquals(Model.State.NEXT_LEVEL, model.getState());
+        assertEquals(2, events.size());
+        assertTrue(events.get(1) instanceof ModelEvent.LevelCompleted);
+        assertEquals(sequence.length, recorded.size());
+    }
+
+    @Test
+    public void mismatchEndsTheGame(){
+        int[] pads = sequence.clone();
+        pads[3] = (pads[3] + 1) % Model.PAD_COUNT;
+        pads[4] = Model.PAD_COUNT; /* never checked */
+
+        assertEquals(3, model.click(pads, null));
+        assertEquals(Model.State.GAME_OVER, model.getState());
+        assertEquals(1, events.size());
+        assertEquals(3, ((ModelEvent.GameEnded) events.get(0)).getPlayed());
+        assertEquals(4, recorded.size());
+    }
+
+    @Test
+    public void latePressEndsTheTurn(){
+        long[] times = new long[sequence.length];
+        for(int i = 0; i < times.length; i++)
+            times[i] = i * 100;
+        times[2] = model.getTimeLimit() + 1;
+        times[3] = times[2];
+
+        assertEquals(2, model.click(sequence, times));
+        assertEquals(Model.State.TIME_IS_OVER, model.getState());
+        assertEquals(1, events.size());
+        assertEquals(2, ((ModelEvent.GameEnded) events.get(0)).getPlayed());
+        assertEquals(List.of(Model.Input.CLICK, Model.Input.CLICK, Model.Input.TIMEOUT), recorded);
+    }
+
+    @Test
+    public void invalidBatchesAreRejected(){
+        int[] tooMany = Arrays.copyOf(sequence, sequence.length + 1);
+        int[] invalid = sequence.clone();
+        invalid[1] = -1;
+
+        assertEquals(Model.BATCH_REJECTED, model.click(tooMany, null));
+        assertEquals(Model.BATCH_REJECTED, model.click(invalid, null));
+        assertEquals(Model.BATCH_REJECTED, model.click(sequence, new long[sequence.length - 1]));
+        assertEquals(Model.BATCH_REJECTED, model.click(Arrays.copyOf(sequence, 2), new long[]{200, 100}));
+        assertEquals(Model.State.PLAYER_TURN, model.getState());
+        assertTrue(events.isEmpty());
+        assertTrue(recorded.isEmpty());
+
+        model.click((sequence[0] + 1) % Model.PAD_COUNT);
+        assertEquals(Model.BATCH_REJECTED, model.click(sequence, null)); /* not the player turn anymore */
+    }
+}
@@ -0,0 +1,121 @@
+package g56080.simon.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ModelSnapshotTest{
+
+    @Test
+    public void restoredGameContinuesIdentically(){
+        VirtualClock clock = new VirtualClock();
+        Model model = new Model(new ClockChronoTimer(clock), 5L);
+        model.init();
+        model.start();
+        playLevels(model, 40); /* the sequences span two words */
+        byte[] snapshot = model.toSnapshot();
+        assertEquals(Model.SNAPSHOT_VERSION, snapshot[0]);
+
+        Model restored = new Model(new ClockChronoTimer(new VirtualClock()), 9L);
+        List<ModelEvent> events = new ArrayList<>();
+        restored.subscribe(events::add);
+        restored.restore(snapshot);
+
+        assertEquals(1, events.size());
+        assertSameGame(model, restored);
+        playLevels(model, 3);
+        playLevels(restored, 3);
+        assertSameGame(model, restored);
+    }
+
+    @Test
+    public void playerTurnIsRestoredBeforeTheTurn(){
+        VirtualClock clock = new VirtualClock();
+        Model model = new Model(new ClockChronoTimer(clock), 6L);
+        model.init();
+        model.start();
+        playLevels(model, 2);
+        assertTrue(model.sequenceOver());
+        assertTrue(model.click(model.getSequence().get(0)));
+        assertEquals(Model.State.PLAYER_TURN, model.getState());
+
+        Model restored = new Model(new ClockChronoTimer(clock), 6L);
+        restored.restore(model.toSnapshot());
+        assertEquals(Model.State.GAME_TURN, restored.getState());
+        assertTrue(restored.sequenceOver());
+        for(int pad : model.getSequence().toArray())
+            assertTrue(restored.click(pad));
+        assertEquals(Model.State.NEXT_LEVEL, restored.getState());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedVersionIsRejected(){
+        Model model = new Model(new ClockChronoTimer(new VirtualClock()), 1L);
+        model.init();
+        byte[] snapshot = model.toSnapshot();
+        snapshot[0] = Model.SNAPSHOT_VERSION - 1;
+        model.restore(snapshot);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedSnapshotIsRejected(){
+        Model model = new Model(new ClockChronoTimer(new VirtualClock()), 1L);
+        model.init();
+        model.start();
+        byte[] snapshot = model.toSnapshot();
+        model.restore(Arrays.copyOf(snapshot, snapshot.length - 1));
+    }
+
+    @Test
+    public void inconsistentSnapshotsAreRejected(){
+        Model model = new Model(new ClockChronoTimer(new VirtualClock()), 1L);
+        model.init();
+        model.start();
+        playLevels(model, 2);
+        byte[] snapshot = model.toSnapshot();
+        Model restored = new Model(new ClockChronoTimer(new VirtualClock()), 1L);
+
+        assertRejected(restored, snapshot, 2, (byte) 8); /* unknown flag */
+        assertRejected(restored, snapshot, 2, (byte) 6); /* longuest shared twice */
+        assertRejected(restored, snapshot, 6, (byte) (model.getLevel() + 1));
+        assertRejected(restored, snapshot, 6, (byte) (model.getLevel() - 1));
+        restored.restore(snapshot);
+        assertSameGame(model, restored);
+    }
+
+    private static void assertRejected(Model model, byte[] snapshot, int index, byte value){
+        byte[] corrupted = snapshot.clone();
+        corrupted[index] = value;
+        try{
+            model.restore(corrupted);
+            fail("Restored a corrupted snapshot");
+        } catch(IllegalArgumentException exc){
+            assertNull(model.getState()); /* left untouched */
+        }
+    }
+
+    private static void playLevels(Model model, int levels){ /* plays the given levels without error */
+        for(int i = 0; i < levels; i++){
+            assertTrue(model.sequenceOver());
+            for(int pad : model.getSequence().toArray())
+                assertTrue(model.click(pad));
+            assertTrue(model.nextLevel());
+        }
+    }
+
+    private static void assertSameGame(Model expected, Model actual){
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getTimeLimit(), actual.getTimeLimit());
+        assertArrayEquals(expected.getSequence().toArray(), actual.getSequence().toArray());
+    }
+}
@@ -0,0 +1,104 @@
+package g56080.simon.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ModelTransitionTest{
+
+    private VirtualClock clock;
+    private Model model;
+    private List<Model.Input> recorded;
+
+    @Before
+    public void setUp(){
+        clock = new VirtualClock();
+        model = new Model(new ClockChronoTimer(clock), 3L);
+        recorded = new ArrayList<>();
+        model.setRecorder((input, arg) -> recorded.add(input));
+    }
+
+    @Test
+    public void onlyInitIsLegalBeforeInit(){
+        for(Model.Input input : Model.Input.values())
+            assertEquals(input == Model.Input.INIT, model.accepts(input));
+        assertFalse(model.start());
+        assertFalse(model.click(0));
+        assertTrue(recorded.isEmpty());
+    }
+
+    @Test
+    public void illegalInputsAreRejectedWithoutSideEffect(){
+        model.init();
+        model.start();
+        recorded.clear();
+        int[] notified = {0};
+        model.subscribe(event -> notified[0]++);
+
+        assertFalse(model.click(model.getSequence().get(0))); /* the sequence is being played */
+        assertFalse(model.nextLevel());
+        assertFalse(model.start());
+        assertFalse(model.timer(() -> {}));
+        assertEquals(Model.State.GAME_STARTED, model.getState());
+        assertEquals(0, notified[0]);
+        assertTrue(recorded.isEmpty());
+    }
+
+    @Test
+    public void invalidPadIsRejected(){
+        model.init();
+        model.start();
+        model.sequenceOver();
+        assertFalse(model.click(-1));
+        assertFalse(model.click(Model.PAD_COUNT));
+        assertEquals(Model.State.PLAYER_TURN, model.getState());
+    }
+
+    @Test
+    public void clickOutcomesFollowTheTable(){
+        model.init();
+        assertTrue(model.timer(() -> {}));
+        assertEquals(Model.State.GAME_STARTED_TIMER, model.getState());
+        assertTrue(model.start());
+        assertTrue(model.sequenceOver());
+        assertTrue(model.click(model.getSequence().get(0)));
+        assertEquals(Model.State.NEXT_LEVEL, model.getState());
+        assertTrue(model.nextLevel());
+        assertEquals(Model.State.GAME_TURN, model.getState());
+        assertTrue(model.sequenceOver());
+        assertTrue(model.click((model.getSequence().get(0) + 1) % Model.PAD_COUNT));
+        assertEquals(Model.State.GAME_OVER, model.getState());
+        assertFalse(model.click(0));
+
+        assertEquals(List.of(Model.Input.INIT, Model.Input.COUNTDOWN, Model.Input.START, Model.Input.SEQUENCE_OVER,
+                Model.Input.CLICK, Model.Input.NEXT_LEVEL, Model.Input.SEQUENCE_OVER, Model.Input.CLICK), recorded);
+    }
+
+    @Test
+    public void inputsAreRecordedBeforeTheirTransition(){
+        List<Model.State> seen = new ArrayList<>();
+        model.setRecorder((input, arg) -> seen.add(model.getState()));
+        model.init();
+        model.start();
+        model.sequenceOver();
+        assertEquals(Arrays.asList(null, Model.State.GAME_NOT_STARTED, Model.State.GAME_STARTED), seen);
+    }
+
+    @Test
+    public void timeoutEndsThePlayerTurnOnly(){
+        model.init();
+        model.start();
+        model.sequenceOver();
+        clock.advance(model.getTimeLimit());
+        assertEquals(Model.State.TIME_IS_OVER, model.getState());
+        assertTrue(model.init());
+        assertEquals(Model.State.GAME_NOT_STARTED, model.getState());
+    }
+}
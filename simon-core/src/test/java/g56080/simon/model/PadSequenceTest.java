@@ -0,0 +1,116 @@
+package g56080.simon.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PadSequenceTest{
+
+    @Test
+    public void padsArePackedAcrossWords(){
+        int[] pads = randomPads(100, 1L);
+        PadSequence sequence = new PadSequence(pads);
+
+        assertEquals(pads.length, sequence.size());
+        for(int i = 0; i < pads.length; i++)
+            assertEquals(pads[i], sequence.get(i));
+        assertArrayEquals(pads, sequence.toArray());
+    }
+
+    @Test
+    public void padsAreConsumedInOrder(){
+        PadSequence sequence = new PadSequence();
+        for(int i = 0; i < 70; i++)
+            sequence.offer(i % Model.PAD_COUNT);
+        for(int i = 0; i < 40; i++)
+            assertEquals(i % Model.PAD_COUNT, sequence.poll());
+        for(int i = 70; i < 150; i++) /* reclaims the consumed words */
+            sequence.offer(i % Model.PAD_COUNT);
+
+        assertEquals(110, sequence.size());
+        for(int i = 40; i < 150; i++)
+            assertEquals(i % Model.PAD_COUNT, sequence.poll());
+        assertTrue(sequence.isEmpty());
+        assertEquals(-1, sequence.peek());
+        assertEquals(-1, sequence.poll());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPadIsRejected(){
+        new PadSequence().offer(Model.PAD_COUNT);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexBeyondTheTailIsRejected(){
+        new PadSequence(0, 1).get(2);
+    }
+
+    @Test
+    public void snapshotIsNotChangedByTheSequence(){
+        int[] pads = randomPads(40, 2L);
+        PadSequence sequence = new PadSequence(pads);
+        PadSequence snapshot = sequence.snapshot();
+
+        for(int i = 0; i < 100; i++)
+            sequence.offer(3);
+        sequence.poll();
+        sequence.clear();
+        sequence.offer(1);
+
+        assertArrayEquals(pads, snapshot.toArray());
+    }
+
+    @Test
+    public void sequenceIsNotChangedByItsSnapshot(){
+        int[] pads = randomPads(33, 3L);
+        PadSequence sequence = new PadSequence(pads);
+        PadSequence snapshot = sequence.snapshot();
+
+        snapshot.offer(0); /* copies the shared words first */
+        snapshot.poll();
+        sequence.offer(2);
+
+        assertEquals(34, sequence.size());
+        assertEquals(2, sequence.get(33));
+        assertEquals(0, snapshot.get(32));
+        for(int i = 0; i < pads.length; i++)
+            assertEquals(pads[i], sequence.get(i));
+    }
+
+    @Test
+    public void wordsRoundTrip(){
+        int[] pads = randomPads(75, 4L);
+        PadSequence sequence = new PadSequence(pads);
+        sequence.poll(); /* the head is not aligned anymore */
+        sequence.poll();
+        long[] words = sequence.toWords();
+
+        assertEquals(3, words.length);
+        assertArrayEquals(Arrays.copyOfRange(pads, 2, pads.length), PadSequence.fromWords(words, 73).toArray());
+        assertTrue(PadSequence.fromWords(new long[0], 0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingWordsAreRejected(){
+        PadSequence.fromWords(new long[2], 65);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSizeIsRejected(){
+        PadSequence.fromWords(new long[1], -1);
+    }
+
+    static int[] randomPads(int count, long seed){
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] pads = new int[count];
+        for(int i = 0; i < count; i++)
+            pads[i] = random.nextInt(Model.PAD_COUNT);
+
+        return pads;
+    }
+}
@@ -0,0 +1,113 @@
+package g56080.simon.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import g56080.simon.model.PadSequence;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScoreStoreTest{
+
+    private final static int FIRST_RECORD = 4096, SLOT_SIZE = 512, WORDS = 32; /* a store of capacity 4 */
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void bestSequencesSurviveReopening() throws IOException{
+        Path file = storePath();
+        long alice = ScoreStore.playerKey("alice"), bob = ScoreStore.playerKey("bob");
+        PadSequence best = sequence(70);
+        try(ScoreStore store = ScoreStore.open(file, 4)){
+            assertTrue(store.update(alice, sequence(5)));
+            assertTrue(store.update(alice, best));
+            assertFalse(store.update(alice, sequence(70)));
+            assertTrue(store.update(bob, sequence(3)));
+            assertEquals(0, store.getLevel(ScoreStore.playerKey("carol")));
+        }
+
+        try(ScoreStore store = ScoreStore.open(file, 100)){
+            assertEquals(4, store.getCapacity());
+            assertEquals(2, store.size());
+            assertEquals(70, store.getLevel(alice));
+            assertArrayEquals(best.toArray(), store.getSequence(alice).toArray());
+            assertEquals(3, store.getLevel(bob));
+        }
+    }
+
+    @Test
+    public void corruptedActiveSlotFallsBackToThePreviousOne() throws IOException{
+        Path file = storePath();
+        long alice = ScoreStore.playerKey("alice");
+        PadSequence previous = sequence(40);
+        try(ScoreStore store = ScoreStore.open(file, 4)){
+            store.update(alice, previous); /* first slot */
+            store.update(alice, sequence(50)); /* second slot, now the active one */
+        }
+
+        corrupt(file, FIRST_RECORD + SLOT_SIZE + WORDS);
+        try(ScoreStore store = ScoreStore.open(file, 4)){
+            assertEquals(40, store.getLevel(alice));
+            assertArrayEquals(previous.toArray(), store.getSequence(alice).toArray());
+            assertTrue(store.update(alice, sequence(45))); /* overwrites the corrupted slot */
+            assertEquals(45, store.getLevel(alice));
+        }
+    }
+
+    @Test
+    public void playerWithoutValidSlotIsUnknown() throws IOException{
+        Path file = storePath();
+        long alice = ScoreStore.playerKey("alice");
+        try(ScoreStore store = ScoreStore.open(file, 4)){
+            store.update(alice, sequence(10));
+        }
+
+        corrupt(file, FIRST_RECORD + WORDS);
+        try(ScoreStore store = ScoreStore.open(file, 4)){
+            assertEquals(0, store.getLevel(alice));
+            assertTrue(store.getSequence(alice).isEmpty());
+            assertTrue(store.update(alice, sequence(2)));
+            assertEquals(2, store.getLevel(alice));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void foreignFileIsRejected() throws IOException{
+        Path file = storePath();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        ScoreStore.open(file, 4);
+    }
+
+    private static PadSequence sequence(int size){
+        PadSequence sequence = new PadSequence();
+        for(int i = 0; i < size; i++)
+            sequence.offer((i * 7 + i / 3) % 4);
+
+        return sequence;
+    }
+
+    private static void corrupt(Path file, long position) throws IOException{ /* flips the bits of a byte */
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) ~buffer.get(0));
+            channel.write(buffer.rewind(), position);
+        }
+    }
+
+    private Path storePath(){
+        return folder.getRoot().toPath().resolve("scores.db");
+    }
+}
@@ -0,0 +1,69 @@
+package g56080.simon;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import g56080.simon.controller.Controller;
+import g56080.simon.model.ClockChronoTimer;
+import g56080.simon.model.Model;
+import g56080.simon.model.ModelEvent;
+import g56080.simon.store.ScoreStore;
+import g56080.simon.view.FrameScheduler;
+
+import javafx.application.Application;
+
+import javafx.stage.Stage;
+
+/**
+ * Application entry point to run the application.
+ */
+public class App extends Application{
+
+    private final static int STORE_CAPACITY = 1 << 16;
+
+    private ScoreStore store;
+
+    /**
+     * Main method launching the application.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args){
+        Application.launch(args);
+    }
+
+    @Override
+    public void start(Stage mainStage){
+        FrameScheduler clock = new FrameScheduler();
+        Model model = new Model(new ClockChronoTimer(clock));
+        openStore(model);
+        Controller controller = new Controller(mainStage, model, clock);
+    }
+
+    @Override
+    public void stop() throws Exception{
+        super.stop();
+        if(store != null)
+            store.close();
+        System.exit(0);
+    }
+
+    private void openStore(Model model){ /* the longuest sequence of the user survives restarts */
+        Path file = Path.of(System.getProperty("user.home"), ".simon", "scores.db");
+        long player = ScoreStore.playerKey(System.getProperty("user.name"));
+        try{
+            Files.createDirectories(file.getParent());
+            store = ScoreStore.open(file, STORE_CAPACITY);
+        } catch(IOException exc){
+            System.err.println("Scores not persisted: " + exc.getMessage());
+            return;
+        }
+
+        model.setLonguestSequence(store.getSequence(player));
+        model.subscribe(event -> {
+            if(event instanceof ModelEvent.GameEnded)
+                store.update(player, model.getLonguestSequence());
+        });
+    }
+}
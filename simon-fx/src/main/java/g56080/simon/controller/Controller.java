@@ -1,10 +1,10 @@
 package g56080.simon.controller;
 
 import g56080.simon.model.Model;
+import g56080.simon.view.FrameScheduler;
 import g56080.simon.view.View;
 
 import javafx.stage.Stage;
-import javafx.scene.paint.Color;
 
 /**
  * Application controller dedicated to receive notifications from the view(s), for the model.
@@ -24,9 +24,21 @@ public class Controller{
      * @param model the application model
      */
     public Controller(Stage stage, Model model){
+        this(stage, model, new FrameScheduler());
+    }
+
+    /**
+     * Creates a new Controller using the given stage, model and scheduler. A default view is also created from the
+     * newly created controller, the given model and scheduler, on which the view schedules its animations.
+     *
+     * @param stage the application main stage
+     * @param model the application model
+     * @param clock the scheduler on which the view schedules the sequence playback, the pad flashes and the countdown
+     */
+    public Controller(Stage stage, Model model, FrameScheduler clock){
         this.stage = stage;
         this.model = model;
-        view = new View(this, model);
+        view = new View(this, model, clock);
 
         model.init();
         view.start(stage);
@@ -36,21 +48,21 @@ public class Controller{
      * Notifies the model to start the timer before playing a normal game.
      */
     public void timerStart(){
-        model.timer(controller -> controller.start());
+        model.timer(this::start);
     }
 
     /**
      * Notifies the model to start the timer before playing the last game.
      */
     public void timerLast(){
-        model.timer(controller -> controller.last());
+        model.timer(this::last);
     }
 
     /**
      * Notifies the model to start the timer before playing the longuest game.
      */
     public void timerLonguest(){
-        model.timer(controller -> controller.longuest());
+        model.timer(this::longuest);
     }
 
     /**
@@ -85,10 +97,10 @@ public class Controller{
     /**
      * Notifies the model that a click has occured on a color button (from the first layer).
      *
-     * @param clickedColor the color of the button on which the user has clicked.
+     * @param pad the pad id of the button on which the user has clicked.
      */
-    public void click(Color clickedColor){
-        model.click(clickedColor);
+    public void click(int pad){
+        model.click(pad);
     }
 
     /**
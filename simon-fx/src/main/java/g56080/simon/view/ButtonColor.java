@@ -0,0 +1,121 @@
+package g56080.simon.view;
+
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.paint.Color;
+
+/**
+ * The enumeration color for the game buttons. The ordinal of each litteral is the pad id used by the model
+ * to represent the button. Each litteral caches the backgrounds of its button, at rest and pressed, so that
+ * flashing a pad does not allocate.
+ */
+public enum ButtonColor{
+
+    /**
+     * The red color.
+     */
+    RED(Color.RED, Color.RED.darker()), 
+
+    /**
+     * The green color.
+     */
+    GREEN(Color.GREEN, Color.GREEN.darker()), 
+
+    /**
+     * The yellow color.
+     */
+    YELLOW(Color.YELLOW, Color.YELLOW.darker()), 
+
+    /**
+     * The blue color.
+     */
+    BLUE(Color.BLUE, Color.BLUE.darker());
+
+    private final static ButtonColor[] VALUES = values();
+
+    private final Color color, altColor;
+    private final Background background, altBackground;
+
+    private ButtonColor(Color color, Color altColor){
+        this.color = color;
+        this.altColor = altColor;
+        background = new Background(new BackgroundFill(color, null, null));
+        altBackground = new Background(new BackgroundFill(altColor, null, null));
+    }
+
+    /**
+     * Gets the RGB color of the invoking litteral.
+     *
+     * @return the RGB color associated to the invoking litteral.
+     */
+    public Color getValue(){
+        return color;
+    }
+
+    /**
+     * Gets the pad id of the invoking litteral as used by the model.
+     *
+     * @return the pad id associated to the invoking litteral.
+     */
+    public int getPad(){
+        return ordinal();
+    }
+
+    /**
+     * Gets the alternative RGB color of the invoking litteral.
+     *
+     * @return the alternative RGB color associated to the invoking litteral.
+     */
+    public Color getAltValue(){
+        return altColor;
+    }
+
+    /**
+     * Gets the cached background of the button of the invoking litteral at rest, filled with its RGB color.
+     *
+     * @return the background at rest.
+     */
+    public Background getBackground(){
+        return background;
+    }
+
+    /**
+     * Gets the cached background of the button of the invoking litteral while pressed, filled with its alternative
+     * RGB color.
+     *
+     * @return the background while pressed.
+     */
+    public Background getAltBackground(){
+        return altBackground;
+    }
+
+    /**
+     * Gets the ButtonColor litteral associated to the given pad id.
+     *
+     * @param pad the pad id
+     * @return the ButtonColor litteral whose pad id is the given one.
+     * @throws ArrayIndexOutOfBoundsException if the given pad id is not a valid one.
+     */
+    public static ButtonColor valueOf(int pad){
+        return VALUES[pad];
+    }
+
+    /**
+     * Gets the ButtonColor litteral associated to the given color or null if no litteral
+     * matched the color.
+     *
+     * @param color the RGB color
+     * @return the ButtonColor litteral that matched the given color or null if no litteral has been found.
+     */
+    public static ButtonColor valueOf(Color color){
+        ButtonColor res = null;
+        ButtonColor[] values = ButtonColor.values();
+        for(ButtonColor btnColor : values){
+            if(btnColor.getValue().toString().equals(color.toString()))
+                res = btnColor;
+        }
+
+        return res;
+    }
+}
+
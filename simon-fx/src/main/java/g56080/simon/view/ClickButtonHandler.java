@@ -0,0 +1,115 @@
+package g56080.simon.view;
+
+import javax.sound.midi.MidiChannel;
+
+import g56080.simon.controller.Controller;
+
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+
+/**
+ * Event handler for the click on a color button represented by an ActionEvent. The handler flashes the button,
+ * plays its note and, in click mode, notifies the controller once the flash is over.
+ *
+ * <p>The flash does not allocate: the backgrounds are cached by the {@link ButtonColor} and the end of the flash is
+ * a single action of the {@link FrameScheduler} of the view, created once and scheduled again on each press. A press
+ * during a flash ends the running flash first (the previous click being notified) and restarts it, so that flashes
+ * never stack.
+ */
+public class ClickButtonHandler implements EventHandler<ActionEvent>{
+
+    private final static long FLASH = 200; /* milliseconds */
+    private final static int VELOCITY = 70;
+
+    private final ButtonColor btnColor;
+    private final Button button;
+    private final int noteNumber;
+    private final Controller controller;
+    private final MidiChannel channel;
+    private final FrameScheduler.Action flash;
+    private boolean isClick, silent;
+    private boolean flashClick; /* click mode of the running flash */
+
+    /**
+     * Creates a new ClickButtonHandler for the click on a color button using the given arguments. The handler is
+     * created in playback mode (see {@link #setClick(boolean)}).
+     *
+     * @param controller the application controller to notify the model on click
+     * @param btnColor the button color on which the click occurs
+     * @param button the button flashed on click
+     * @param noteNumber the note to be played when the click on the button occurs
+     * @param sound the checkbox silencing the button when selected, or null
+     * @param channel the channel used to produce a sound, or null
+     * @param scheduler the scheduler of the view, on which the end of the flash is scheduled
+     */
+    public ClickButtonHandler(Controller controller, ButtonColor btnColor, Button button, int noteNumber,
+            CheckBox sound, MidiChannel channel, FrameScheduler scheduler){
+        this.controller = controller;
+        this.btnColor = btnColor;
+        this.button = button;
+        this.noteNumber = noteNumber;
+        this.channel = channel;
+        flash = scheduler.action(this::release);
+        if(sound != null){
+            silent = sound.isSelected();
+            sound.selectedProperty().addListener((observable, oldValue, newValue) -> silent = newValue);
+        }
+    }
+
+    /**
+     * Sets whether the button click should notify the model (by the controller) or only flash the button, when the
+     * sequence is played to the user.
+     *
+     * @param isClick true to notify the model, false otherwise
+     */
+    public void setClick(boolean isClick){
+        this.isClick = isClick;
+    }
+
+    /**
+     * Resets the button at rest and in playback mode, for a new game. A running flash is cancelled and its click
+     * is not notified.
+     */
+    public void reset(){
+        flash.cancel();
+        flashClick = isClick = false;
+        release();
+    }
+
+    /**
+     * Flashes the button and plays its note as a step of the sequence played to the user. The model is never
+     * notified, whatever the click mode of the handler.
+     */
+    public void flash(){
+        press(false);
+    }
+
+    @Override
+    public void handle(ActionEvent event){
+        press(isClick);
+    }
+
+    private void press(boolean click){ /* start of the flash */
+        if(flash.isPending()){
+            flash.cancel();
+            release();
+        }
+
+        if(channel != null)
+            channel.noteOn(noteNumber, silent ? 0 : VELOCITY);
+        button.setBackground(btnColor.getAltBackground());
+        flashClick = click;
+        flash.schedule(FLASH);
+    }
+
+    private void release(){ /* end of the flash */
+        button.setBackground(btnColor.getBackground());
+        if(channel != null)
+            channel.noteOff(noteNumber);
+        if(flashClick)
+            controller.click(btnColor.getPad());
+    }
+}
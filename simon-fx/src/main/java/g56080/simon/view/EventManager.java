@@ -73,13 +73,14 @@ public class EventManager{
     }
 
     /**
-     * Gets the optional target node linked to the given string id.
+     * Gets the optional target node linked to the given string id. As for the other methods of this manager, the
+     * id is not case sensitive.
      *
      * @param id the node id
      * @return the optional node linked to the given id.
      */
     public Optional<Node> getTarget(String id){
-        return Optional.ofNullable(targets.get(id));
+        return Optional.ofNullable(targets.get(id.toLowerCase()));
     }
 
     /**
@@ -0,0 +1,221 @@
+package g56080.simon.view;
+
+import java.util.Arrays;
+
+import g56080.simon.model.GameClock;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * The GameClock of the user interface, running all the timed actions of the application (sequence steps, pad
+ * flashes, countdown ticks and the player timer of the model) from one AnimationTimer, on the JavaFx application
+ * thread. The pending actions are kept in a binary heap ordered by deadline then scheduling order; each frame runs
+ * the due actions only, so the work per frame is proportional to the number of due actions. The timer only runs
+ * while an action is pending.
+ *
+ * <p>An {@link Action} can be created once and scheduled again and again without allocating, which the frequent
+ * actions (the pad flashes for example) rely on. The view cancels all the pending actions at once when a new game
+ * is set up (see {@link #cancelAll()}), so that no orphaned step of a previous game is ever run.
+ */
+public class FrameScheduler extends AnimationTimer implements GameClock{
+
+    /**
+     * A timed action of a FrameScheduler, which can be scheduled any number of times. Scheduling a pending action
+     * moves its deadline.
+     */
+    public final class Action implements Scheduled{
+
+        private final Runnable task;
+        private long deadline; /* milliseconds */
+        private long order; /* scheduling order, among equal deadlines */
+        private int index = -1; /* in the heap, -1 if not pending */
+
+        private Action(Runnable task){
+            this.task = task;
+        }
+
+        /**
+         * Schedules this action to be run once the given delay has elapsed.
+         *
+         * @param delay the delay in milliseconds
+         */
+        public void schedule(long delay){
+            FrameScheduler.this.schedule(this, delay);
+        }
+
+        /**
+         * Cancels this action if it is pending.
+         */
+        @Override
+        public void cancel(){
+            remove(this);
+        }
+
+        /**
+         * Checks if this action is pending.
+         *
+         * @return true if it is scheduled and neither run nor cancelled yet, false otherwise.
+         */
+        public boolean isPending(){
+            return index >= 0;
+        }
+    }
+
+    private final static int INITIAL_CAPACITY = 64;
+
+    private Action[] heap;
+    private int size;
+    private long orders;
+    private boolean running;
+
+    /**
+     * Creates a new FrameScheduler with no pending action.
+     */
+    public FrameScheduler(){
+        heap = new Action[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a reusable action running the given task, not scheduled yet.
+     *
+     * @param task the task of the action
+     * @return the created action.
+     */
+    public Action action(Runnable task){
+        return new Action(task);
+    }
+
+    @Override
+    public long millis(){
+        return System.nanoTime() / 1_000_000L;
+    }
+
+    @Override
+    public Scheduled schedule(long delay, Runnable task){
+        Action action = new Action(task);
+        schedule(action, delay);
+        return action;
+    }
+
+    /**
+     * Cancels all the pending actions. The player timer of a model scheduled on this scheduler is cancelled as
+     * well, so this is meant to be called once the model has been initialized.
+     */
+    public void cancelAll(){
+        for(int i = 0; i < size; i++){
+            heap[i].index = -1;
+            heap[i] = null;
+        }
+
+        size = 0;
+        pause();
+    }
+
+    /**
+     * Gets the number of pending actions.
+     *
+     * @return the pending action count.
+     */
+    public int getPendingCount(){
+        return size;
+    }
+
+    /**
+     * Runs the due actions, in deadline then scheduling order.
+     *
+     * @param now the timestamp of the frame in nanoseconds (unused, the actions following {@link #millis()})
+     */
+    @Override
+    public void handle(long now){
+        long time = millis();
+        while(size > 0 && heap[0].deadline <= time){
+            Action action = heap[0];
+            removeAt(0);
+            action.task.run();
+        }
+
+        if(size == 0)
+            pause();
+    }
+
+    private void schedule(Action action, long delay){
+        if(action.index >= 0)
+            removeAt(action.index);
+
+        action.deadline = millis() + Math.max(0, delay);
+        action.order = orders++;
+        if(size == heap.length)
+            heap = Arrays.copyOf(heap, size * 2);
+
+        action.index = size;
+        heap[size++] = action;
+        siftUp(action.index);
+        if(!running){
+            running = true;
+            start();
+        }
+    }
+
+    private void remove(Action action){
+        if(action.index >= 0)
+            removeAt(action.index);
+    }
+
+    private void removeAt(int index){
+        Action removed = heap[index];
+        Action last = heap[--size];
+        heap[size] = null;
+        removed.index = -1;
+        if(index < size){
+            heap[index] = last;
+            last.index = index;
+            siftDown(index);
+            siftUp(last.index);
+        }
+    }
+
+    private void siftUp(int index){
+        Action action = heap[index];
+        while(index > 0){
+            int parent = (index - 1) >>> 1;
+            if(!before(action, heap[parent]))
+                break;
+
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(action, index);
+    }
+
+    private void siftDown(int index){
+        Action action = heap[index];
+        int half = size >>> 1;
+        while(index < half){
+            int child = 2 * index + 1;
+            if(child + 1 < size && before(heap[child + 1], heap[child]))
+                child++;
+            if(!before(heap[child], action))
+                break;
+
+            place(heap[child], index);
+            index = child;
+        }
+        place(action, index);
+    }
+
+    private void place(Action action, int index){
+        heap[index] = action;
+        action.index = index;
+    }
+
+    private void pause(){
+        if(running){
+            running = false;
+            stop();
+        }
+    }
+
+    private static boolean before(Action first, Action second){
+        return first.deadline < second.deadline || (first.deadline == second.deadline && first.order < second.order);
+    }
+}
@@ -0,0 +1,30 @@
+package g56080.simon.view;
+
+import javafx.geometry.Insets;
+
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * The style registry of the {@link View}, holding the fonts, fills and spacings its labels share. They are immutable
+ * and created once, so that the view never looks a font up nor creates a background again.
+ */
+final class Styles{
+
+    final static Font TITLE_FONT = Font.font("Verdana", FontWeight.BOLD, 50.);
+    final static Font OVERLAY_FONT = Font.font("Verdana", FontWeight.BOLD, 30.);
+    final static Font COUNTDOWN_FONT = Font.font("Verdana", FontWeight.BOLD, 100.);
+
+    final static Color COUNTDOWN_FILL = Color.WHITE;
+    final static Color INFO_FILL = Color.color(0., 0., 0., 0.6);
+    final static Background OVERLAY_BACKGROUND = new Background(new BackgroundFill(Color.WHITE, null, null));
+
+    final static Insets OVERLAY_PADDING = new Insets(10.);
+    final static Insets OVERLAY_MARGIN = new Insets(5.);
+
+    private Styles(){
+    }
+}
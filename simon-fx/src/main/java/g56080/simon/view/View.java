@@ -1,24 +1,23 @@
 package g56080.simon.view;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Queue;
-import java.util.function.Consumer;
+import java.util.concurrent.ThreadLocalRandom;
 
 import g56080.simon.controller.Controller;
 import g56080.simon.model.Model;
+import g56080.simon.model.ModelEvent;
+import g56080.simon.model.ObservableListener;
+import g56080.simon.model.PadSequenceView;
 
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ChangeListener;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.PauseTransition;
-import javafx.animation.Timeline;
-
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 
@@ -52,17 +51,13 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
 
 import javafx.stage.Stage;
 
-import javafx.util.Duration;
 import javax.sound.midi.MidiUnavailableException;
 import javax.sound.midi.MidiChannel;
 import javax.sound.midi.MidiSystem;
 import javax.sound.midi.Synthesizer;
-import java.util.function.Consumer;
 
 /**
  * The observable application view dedicated to the creation of user interface.
@@ -71,75 +66,105 @@ public class View implements ObservableListener {
     
     private final Controller controller;
     private final Model model;
+    private final FrameScheduler clock;
     private final EventManager eventManager;
     private final StackLayer stackLayer;
     private Stage stage;
     private Scene scene;
     private final MidiChannel channel;
+    private final ClickButtonHandler[] padHandlers; /* indexed by pad id */
+    private final FrameScheduler.Action playback;
+    private int[] playbackPads; /* pads of the played sequence */
+    private long[] playbackTimes; /* deadlines of its steps, in clock milliseconds */
+    private int playbackSize, playbackNext;
+    private long playbackStart, playbackTempo;
+    private Slider speed;
+    private CheckBox silent;
+    private Layer padLayer, shadeLayer, menuLayer; /* built once, on the first GAME_NOT_STARTED */
+    private Rectangle shade;
+    private Layer levelLayer, countdownLayer; /* overlays, built once and driven by the properties below */
+    private final IntegerProperty level, time, countdown; /* time in seconds, countdown READY before the first tick */
+    private final FrameScheduler.Action countdownTick, countdownRelease;
+    private Runnable countdownAction;
+    private int countdownTicks, countdownProgram, countdownNote; /* note played by the last tick */
+    private long countdownStart;
 
     /**
      * Default width and height dimension of the application scene.
      */
     public final static double DEFAULT_WIDTH = 800., DEFAULT_HEIGHT = 800.;
 
+    private final static double DEFAULT_SPEED = 1.;
+    private final static double DEFAULT_SPEED_FACTOR = DEFAULT_SPEED + 0.2; /* slider value + 0.2 */
+    private final static int COUNTDOWN_FROM = 3, READY = -1;
+
     /**
-     * Creates a new View using the given controller and model.
+     * Creates a new View using the given controller, model and scheduler. The sequence playback, the pad flashes
+     * and the countdown before a game are scheduled on the given scheduler, whose pending actions are all cancelled
+     * when a new game is set up.
      *
      * @param controller the application controller
      * @param model the application model
+     * @param clock the scheduler on which the animations are scheduled
      */
-    public View(Controller controller, Model model){
+    public View(Controller controller, Model model, FrameScheduler clock){
         this.controller = controller;
         this.model = model;
+        this.clock = clock;
         stackLayer = new StackLayer();
         eventManager = new EventManager();
 
         channel = getChannel();
+        padHandlers = new ClickButtonHandler[Model.PAD_COUNT];
+        playback = clock.action(this::playStep);
+        playbackPads = new int[16];
+        playbackTimes = new long[16];
+        level = new SimpleIntegerProperty();
+        time = new SimpleIntegerProperty();
+        countdown = new SimpleIntegerProperty(READY);
+        countdownTick = clock.action(this::tick);
+        countdownRelease = clock.action(() -> channel.noteOff(countdownNote));
         model.subscribe(this);
     }
     
     @Override
-    public void update(Model.State state){
-        Queue<Color> sequence = null;
-        Layer layer = null;
-        switch(state){
+    public void update(ModelEvent event){
+        ModelEvent.SequenceReady sequence = null;
+        switch(event.getState()){
             case GAME_NOT_STARTED:
-                stackLayer.clear();
-                eventManager.clear();
-                if(scene != null && stage != null)
-                    initLayout(getWindowWidth(), getWindowHeight());
-                else
-                    initLayout(DEFAULT_WIDTH, DEFAULT_HEIGHT);
-                initEvents();
+                clock.cancelAll(); /* the model has cancelled its player timer already */
+                if(menuLayer == null){
+                    if(scene != null && stage != null)
+                        initLayout(getWindowWidth(), getWindowHeight());
+                    else
+                        initLayout(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+                    initEvents();
+                } else
+                    resetLayout();
                 break;
             case GAME_STARTED_TIMER:
-                layer = createTimerLayer();
                 stackLayer.removeTopLayer();
-                stackLayer.addLayer(layer);
+                stackLayer.addLayer(countdownLayer);
                 stackLayer.compose();
-                runTimerLayer(layer, 3, model.getActionController());
+                runCountdown(((ModelEvent.Countdown) event).getAction());
                 break;
             case GAME_STARTED:
-                sequence = model.getSequence();
-                layer = createLevelLayer(model.getLevel(), model.getTime());
+                sequence = (ModelEvent.SequenceReady) event;
+                showLevel(sequence);
 
                 stackLayer.removeLayers(2);
-                stackLayer.addLayer(layer);
+                stackLayer.addLayer(levelLayer);
                 stackLayer.compose();
-                playSequence(sequence);
+                playSequence(sequence.getSequence(), sequence.getTempo());
                 break;
             case GAME_TURN:
-                sequence = model.getSequence();
-                layer = createLevelLayer(model.getLevel(), model.getTime());
-
-                stackLayer.addLayer(layer);
-                stackLayer.compose();
+                sequence = (ModelEvent.SequenceReady) event;
+                showLevel(sequence);
                 updateButtons(false);
-                playSequence(sequence);
+                playSequence(sequence.getSequence(), sequence.getTempo());
                 break;
             case PLAYER_TURN:
-                stackLayer.removeTopLayer();
-                stackLayer.compose();
+                levelLayer.getRoot().setVisible(false);
                 updateButtons(true);
                 break;
             case NEXT_LEVEL: 
@@ -170,28 +195,31 @@ public class View implements ObservableListener {
     }
 
     /**
-     * Plays the sequence of color by emulating each color in the sequence by a click on 
-     * the corresponding button. The sequence of color will be played faster or slower depending on the
-     * speed value the slider holds.
+     * Plays the sequence of color by flashing, for each pad of the sequence, the corresponding button. The sequence
+     * is compiled up front into the pads and the deadlines of its steps, each step then driving the handler of its
+     * pad directly. The sequence of color is played at the given tempo, scaled by the speed value the slider holds
+     * (the tempo itself at the default speed); a speed change during the playback applies to the remaining steps.
+     * The steps are run by a single action of the clock of this view, scheduled again after each step.
      * 
      * @param sequence the color sequence to be played
+     * @param tempo the period between two steps at the default speed, in milliseconds
      */
-    public void playSequence(Queue<Color> sequence){
-        Queue<Color> sequenceClone = new ArrayDeque<>(sequence);
-        Slider speed = (Slider) eventManager.getTarget("speed").orElse(null);
-
-        Timeline tl = new Timeline(new KeyFrame(Duration.seconds(speed == null ? 1. : speed.getValue() + 0.2), event -> {
-            Color color = sequenceClone.poll();
-            Optional<Node> target = eventManager.getTarget(color.toString());
-            target.ifPresent(node -> {
-                Button btn = (Button) node;
-                btn.fire();
-            });
-        }));
+    public void playSequence(PadSequenceView sequence, long tempo){
+        int size = sequence.size();
+        if(playbackPads.length < size){
+            int capacity = Math.max(size, 2 * playbackPads.length);
+            playbackPads = new int[capacity];
+            playbackTimes = new long[capacity];
+        }
 
-        tl.setCycleCount(sequence.size());
-        tl.setOnFinished(event -> controller.sequenceOver());
-        tl.play();
+        for(int i = 0; i < size; i++)
+            playbackPads[i] = sequence.get(i);
+        playbackSize = size;
+        playbackNext = 0;
+        playbackTempo = tempo;
+        playbackStart = clock.millis();
+        retime(playbackStart);
+        playback.schedule(size == 0 ? 0 : playbackTimes[0] - playbackStart);
     }
 
     /**
@@ -256,18 +284,34 @@ public class View implements ObservableListener {
 
 
     // Private methods
+    private void playStep(){ /* one step of the played sequence, the end of the sequence after the last one */
+        if(playbackNext < playbackSize)
+            padHandlers[playbackPads[playbackNext++]].flash();
+
+        if(playbackNext < playbackSize)
+            playback.schedule(playbackTimes[playbackNext] - clock.millis());
+        else
+            controller.sequenceOver();
+    }
+
+    private void retime(long from){ /* deadlines of the remaining steps, from the given time at the current speed */
+        long period = Math.round(playbackTempo
+                * (speed == null ? 1. : (speed.getValue() + 0.2) / DEFAULT_SPEED_FACTOR));
+        for(int i = playbackNext; i < playbackSize; i++)
+            playbackTimes[i] = from + (i - playbackNext + 1) * period;
+    }
+
+    private void changeSpeed(){ /* applies a speed change to the steps not played yet */
+        if(!playback.isPending() || playbackNext >= playbackSize)
+            return;
+
+        retime(playbackNext == 0 ? playbackStart : playbackTimes[playbackNext - 1]);
+        playback.schedule(playbackTimes[playbackNext] - clock.millis());
+    }
+
     private void updateButtons(boolean isClick){
-        int note = 72;
-        Slider slider = (Slider) eventManager.getTarget("speed").orElse(null);
-        CheckBox cb = (CheckBox) eventManager.getTarget("checkbox").orElse(null);
-        for(ButtonColor btnColor : ButtonColor.values()){
-            eventManager.removeEventsFrom(btnColor.getValue().toString());
-            eventManager.addEventHandler(
-                    btnColor.getValue().toString(), 
-                    ActionEvent.ACTION,
-                    new ClickButtonHandler(controller, btnColor, note, cb, isClick, channel));
-            note += 2;
-        }
+        for(ClickButtonHandler handler : padHandlers)
+            handler.setClick(isClick);
     }
 
 
@@ -353,18 +397,41 @@ public class View implements ObservableListener {
     }
 
     private void initLayout(double width, double height){
-        Layer flayer = createFirstLayer(width, height);
-        Layer slayer = createSecondLayer(width, height);
-        Layer tlayer = createThirdLayer();
-        double tbMargin = DEFAULT_HEIGHT / 4. + (height - DEFAULT_HEIGHT) / 2.;
-        double lrMargin = DEFAULT_WIDTH / 4. + (width - DEFAULT_WIDTH) / 2.;
-        Insets margin = new Insets(tbMargin, lrMargin, tbMargin, lrMargin);
+        padLayer = createFirstLayer(width, height);
+        shadeLayer = createSecondLayer(width, height);
+        menuLayer = createThirdLayer();
+        shade = (Rectangle) shadeLayer.getChildren().get(0);
+        levelLayer = createLevelLayer();
+        countdownLayer = createTimerLayer();
+
+        stackLayer.addLayers(padLayer, shadeLayer, menuLayer);
+        layoutMenu(width, height);
+        stackLayer.compose();
+    }
+
+    private void resetLayout(){ /* back to the start menu, on the layers built by initLayout */
+        for(ClickButtonHandler handler : padHandlers)
+            handler.reset();
+        if(speed != null)
+            speed.setValue(DEFAULT_SPEED);
+        if(silent != null)
+            silent.setSelected(false);
 
-        stackLayer.addLayers(flayer, slayer, tlayer);
-        StackPane.setMargin(tlayer.getRoot(), margin);
+        stackLayer.clear();
+        stackLayer.addLayers(padLayer, shadeLayer, menuLayer);
+        if(scene != null && stage != null)
+            layoutMenu(getWindowWidth(), getWindowHeight());
         stackLayer.compose();
     }
 
+    private void layoutMenu(double width, double height){ /* the resize listeners skip them during a game */
+        double tbMargin = DEFAULT_HEIGHT / 4. + (height - DEFAULT_HEIGHT) / 2.;
+        double lrMargin = DEFAULT_WIDTH / 4. + (width - DEFAULT_WIDTH) / 2.;
+        StackPane.setMargin(menuLayer.getRoot(), new Insets(tbMargin, lrMargin, tbMargin, lrMargin));
+        shade.setWidth(width);
+        shade.setHeight(height);
+    }
+
     private void initEvents(){ /* Adds events to previously added nodes */
         initEventTargets();
 
@@ -382,15 +449,19 @@ public class View implements ObservableListener {
         eventManager.addEventHandler("last", MouseEvent.MOUSE_CLICKED, event -> controller.timerLast());
         eventManager.addEventHandler("longuest", MouseEvent.MOUSE_CLICKED, event -> controller.timerLonguest());
 
+        // Speed slider
+        speed = (Slider) eventManager.getTarget("speed").orElse(null);
+        if(speed != null)
+            speed.valueProperty().addListener((observable, oldValue, newValue) -> changeSpeed());
+
         // First layer buttons
         int note = 72;
-        Slider slider = (Slider) eventManager.getTarget("speed").orElse(null);
-        CheckBox cb = (CheckBox) eventManager.getTarget("checkbox").orElse(null);
+        silent = (CheckBox) eventManager.getTarget("checkBox").orElse(null);
         for(ButtonColor btnColor : ButtonColor.values()){
-            eventManager.addEventHandler(
-                    btnColor.getValue().toString(), 
-                    ActionEvent.ACTION,
-                    new ClickButtonHandler(controller, btnColor, note, cb, false, channel));
+            Button btn = (Button) eventManager.getTarget(btnColor.getValue().toString()).orElseThrow();
+            padHandlers[btnColor.getPad()] = new ClickButtonHandler(controller, btnColor, btn, note, silent, channel,
+                    clock);
+            eventManager.addEventHandler(btnColor.getValue().toString(), ActionEvent.ACTION, padHandlers[btnColor.getPad()]);
             note += 2;
         }
     }
@@ -480,66 +551,81 @@ public class View implements ObservableListener {
         return new Layer(grid);
     }
 
-    private Layer createLevelLayer(int level, int time){
+    private Layer createLevelLayer(){ /* bound to the level and time properties */
         BorderPane pane = new BorderPane();
-        Label lvl = new Label(String.format("LEVEL %d", level));
-        Label timer = new Label(String.format("TIME %ds", time));
+        Label lvl = createOverlayLabel();
+        Label timer = createOverlayLabel();
 
-        lvl.setFont(Font.font("Verdana", FontWeight.BOLD, 30));
-        timer.setFont(Font.font("Verdana", FontWeight.BOLD, 30));
-
-        lvl.setBackground(new Background(new BackgroundFill(Color.WHITE, null, null)));
-        timer.setBackground(new Background(new BackgroundFill(Color.WHITE, null, null)));
-        lvl.setPadding(new Insets(10));
-        timer.setPadding(new Insets(10));
+        lvl.textProperty().bind(level.asString("LEVEL %d"));
+        timer.textProperty().bind(time.asString("TIME %ds"));
         pane.setLeft(lvl);
         pane.setRight(timer);
-        BorderPane.setMargin(lvl, new Insets(5));
-        BorderPane.setMargin(timer, new Insets(5));
+        BorderPane.setMargin(lvl, Styles.OVERLAY_MARGIN);
+        BorderPane.setMargin(timer, Styles.OVERLAY_MARGIN);
 
         return new Layer(pane);
     }
 
-    private Layer createTimerLayer(){
+    private Layer createTimerLayer(){ /* bound to the countdown property */
         BorderPane pane = new BorderPane();
-        Label label = new Label("Ready ?!");
+        Label label = new Label();
 
-        label.setFont(Font.font("Verdana", FontWeight.BOLD, 100));
-        label.setTextFill(Color.WHITE);
+        label.textProperty().bind(Bindings.createStringBinding(() -> countdownText(countdown.get()), countdown));
+        label.setFont(Styles.COUNTDOWN_FONT);
+        label.setTextFill(Styles.COUNTDOWN_FILL);
         pane.setCenter(label);
         BorderPane.setAlignment(label, Pos.CENTER);
 
         return new Layer(pane);
     }
 
-    private void runTimerLayer(Layer layer, int time, Consumer<Controller> controllerAction){
-        Label timer = (Label) layer.getChildren(node -> node instanceof Label).get(0);
-        int channelProgram = channel.getProgram();
-        PauseTransition pt = new PauseTransition(Duration.seconds(0.2));
-        pt.setOnFinished(event -> channel.noteOff(72));
-
-        Timeline tl = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            if(isNumber(timer.getText()) && Integer.valueOf(timer.getText()) > 1){
-                timer.setText(Integer.valueOf(timer.getText()) - 1 + "");
-                channel.noteOn(72, 100);
-            } else if(isNumber(timer.getText())){
-                channel.noteOn(60, 100);
-                timer.setText("Start !");
-            } else if(!timer.getText().equals("Start !")){
-                timer.setText(time + "");
-                channel.noteOn(72, 100);
-            }
-            pt.play();
-        }));
-
-        channel.programChange(0, 56);
-        tl.setCycleCount(time + 2);
-        tl.setOnFinished(event -> {
-            channel.noteOff(60);
-            channel.programChange(0, channelProgram);
-            controllerAction.accept(controller);
-        });
-        tl.play();
+    private void showLevel(ModelEvent.SequenceReady sequence){ /* updates the level overlay in place */
+        level.set(sequence.getLevel());
+        time.set((int) ((sequence.getTimeLimit() + 999) / 1000)); /* rounded up, as Model.getTime */
+        levelLayer.getRoot().setVisible(true);
+    }
+
+    private void runCountdown(Runnable controllerAction){
+        countdown.set(READY);
+        countdownAction = controllerAction;
+        countdownTicks = 0;
+        countdownStart = clock.millis();
+        if(channel != null){
+            countdownProgram = channel.getProgram();
+            channel.programChange(0, 56);
+        }
+
+        countdownTick.schedule(1000);
+    }
+
+    private void tick(){ /* one second of the countdown: from READY to COUNTDOWN_FROM, ..., 1, 0, then the end */
+        int value = countdown.get();
+        if(value == READY || value > 1)
+            countdown.set(value == READY ? COUNTDOWN_FROM : value - 1);
+        else if(value == 1)
+            countdown.set(0);
+
+        if(channel != null && value != 0){
+            countdownNote = value == 1 ? 60 : 72;
+            channel.noteOn(countdownNote, 100);
+            countdownRelease.schedule(200);
+        }
+
+        if(++countdownTicks < COUNTDOWN_FROM + 2){
+            countdownTick.schedule(countdownStart + (countdownTicks + 1) * 1000L - clock.millis());
+            return;
+        }
+
+        if(channel != null) /* the start note has been released by its tick */
+            channel.programChange(0, countdownProgram);
+        countdownAction.run();
+    }
+
+    private String countdownText(int value){
+        if(value == READY)
+            return "Ready ?!";
+
+        return value == 0 ? "Start !" : Integer.toString(value);
     }
 
 
@@ -549,10 +635,6 @@ public class View implements ObservableListener {
      * COMPONENTS
      **/
 
-    private boolean isNumber(String text){
-        return Character.isDigit(text.charAt(0));
-    }
-
     private MidiChannel getChannel(){
         Synthesizer synth = null;
         try{
@@ -563,7 +645,7 @@ public class View implements ObservableListener {
         }
 
         MidiChannel channel = synth.getChannels()[0];
-        channel.programChange(0, Model.genRandom(0, 128));
+        channel.programChange(0, ThreadLocalRandom.current().nextInt(0, 128));
         return channel;
     }
 
@@ -621,7 +703,7 @@ public class View implements ObservableListener {
         VBox box = new VBox(5.);
         Label label = new Label("info");
         CheckBox checkbox = new CheckBox("Silent mode");
-        label.setTextFill(Color.color(0, 0, 0, 0.6));
+        label.setTextFill(Styles.INFO_FILL);
 
         box.getChildren().addAll(label, checkbox);
         box.setAlignment(Pos.CENTER);
@@ -631,14 +713,23 @@ public class View implements ObservableListener {
 
     private Label createTitle(String labelText){
         Label label = new Label(labelText);
-        label.setFont(Font.font("Verdana", FontWeight.BOLD, 50.));
+        label.setFont(Styles.TITLE_FONT);
+
+        return label;
+    }
+
+    private Label createOverlayLabel(){
+        Label label = new Label();
+        label.setFont(Styles.OVERLAY_FONT);
+        label.setBackground(Styles.OVERLAY_BACKGROUND);
+        label.setPadding(Styles.OVERLAY_PADDING);
 
         return label;
     }
 
     private VBox createSlider(){
         VBox sliderBox = new VBox(2.);
-        Slider slider = new Slider(0.5, 1.5, 1);
+        Slider slider = new Slider(0.5, 1.5, DEFAULT_SPEED);
         Label label = new Label("speed");
 
         slider.setShowTickMarks(true);